@@ -0,0 +1,71 @@
+package com.user.permissions.appuser.validation;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.user.permissions.appuser.request.CreateUserRequest;
+import com.user.permissions.appuser.request.ProfileUpdateRequest;
+
+/** Validation throughput for single payloads and for /bulk sized batches. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class AppUserValidatorBenchmark {
+
+    @Param({"100", "5000"})
+    private int bulkSize;
+
+    private final AppUserValidator validator = new AppUserValidator();
+
+    private CreateUserRequest validUser;
+    private CreateUserRequest invalidUser;
+    private ProfileUpdateRequest validProfile;
+    private List<CreateUserRequest> bulk;
+
+    @Setup
+    public void setUp() {
+        validUser = new CreateUserRequest("jane.doe@example.com", "secret123", "Jane Doe", "USER");
+        invalidUser = new CreateUserRequest(" ", null, "", "OWNER");
+        validProfile = new ProfileUpdateRequest("Jane Doe", "jane.doe@example.com", "secret123");
+        bulk = new ArrayList<>(bulkSize);
+        for (int i = 0; i < bulkSize; i++) {
+            // One in ten entries fails, like a bulk import with a few bad rows
+            bulk.add(i % 10 == 0
+                ? new CreateUserRequest("user" + i + "@example.com", "", "User " + i, "USER")
+                : new CreateUserRequest("user" + i + "@example.com", "secret123", "User " + i, "USER"));
+        }
+    }
+
+    @Benchmark
+    public ValidationErrors validNewUser() {
+        return validator.validateNewUser(validUser);
+    }
+
+    @Benchmark
+    public ValidationErrors invalidNewUser() {
+        return validator.validateNewUser(invalidUser);
+    }
+
+    @Benchmark
+    public ValidationErrors validProfile() {
+        return validator.validateProfile(validProfile);
+    }
+
+    @Benchmark
+    public void bulkNewUsers(Blackhole blackhole) {
+        for (CreateUserRequest request : bulk) {
+            blackhole.consume(validator.validateNewUser(request));
+        }
+    }
+}
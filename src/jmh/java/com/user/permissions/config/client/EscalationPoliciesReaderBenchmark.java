@@ -0,0 +1,104 @@
+package com.user.permissions.config.client;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.user.permissions.escalationpolicies.model.EscalationPoliciesResponse;
+
+/** Streaming reader against the message-converter binding it replaced, on 100-policy PagerDuty pages. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class EscalationPoliciesReaderBenchmark {
+
+    private static final int PAGE_SIZE = 100;
+
+    @Param({"identity", "gzip"})
+    private String encoding;
+
+    // Same configuration as the ObjectMapper behind RestTemplate's Jackson converter
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+    private byte[] body;
+
+    @Setup
+    public void setUp() throws IOException {
+        byte[] json = page().getBytes(StandardCharsets.UTF_8);
+        if ("gzip".equals(encoding)) {
+            ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+            try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+                gzip.write(json);
+            }
+            body = compressed.toByteArray();
+        } else {
+            body = json;
+        }
+    }
+
+    @Benchmark
+    public EscalationPoliciesResponse streamingReader() throws IOException {
+        return EscalationPoliciesReader.read(open());
+    }
+
+    @Benchmark
+    public EscalationPoliciesResponse objectMapperBinding() throws IOException {
+        return objectMapper.readValue(open(), EscalationPoliciesResponse.class);
+    }
+
+    private InputStream open() throws IOException {
+        InputStream in = new ByteArrayInputStream(body);
+        return "gzip".equals(encoding) ? new GZIPInputStream(in) : in;
+    }
+
+    // Shaped like a real page: rules, targets, services and teams are returned upstream but not served by us
+    private static String page() {
+        StringBuilder json = new StringBuilder("{\"escalation_policies\":[");
+        for (int i = 0; i < PAGE_SIZE; i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            String id = "PEP" + i;
+            json.append("{\"id\":\"").append(id).append("\",\"type\":\"escalation_policy\",")
+                .append("\"summary\":\"Team ").append(i).append(" escalation\",")
+                .append("\"self\":\"https://api.pagerduty.com/escalation_policies/").append(id).append("\",")
+                .append("\"html_url\":\"https://acme.pagerduty.com/escalation_policies/").append(id).append("\",")
+                .append("\"name\":\"Team ").append(i).append(" escalation\",")
+                .append("\"escalation_rules\":[");
+            for (int r = 0; r < 3; r++) {
+                if (r > 0) {
+                    json.append(',');
+                }
+                json.append("{\"id\":\"PR").append(i).append(r).append("\",\"escalation_delay_in_minutes\":30,\"targets\":[")
+                    .append("{\"id\":\"PU").append(i).append(r).append("\",\"type\":\"user_reference\",")
+                    .append("\"summary\":\"On-call engineer\",\"self\":\"https://api.pagerduty.com/users/PU")
+                    .append(i).append(r).append("\",\"html_url\":\"https://acme.pagerduty.com/users/PU").append(i).append(r).append("\"},")
+                    .append("{\"id\":\"PS").append(i).append(r).append("\",\"type\":\"schedule_reference\",")
+                    .append("\"summary\":\"Primary rotation\",\"self\":\"https://api.pagerduty.com/schedules/PS")
+                    .append(i).append(r).append("\",\"html_url\":\"https://acme.pagerduty.com/schedules/PS").append(i).append(r).append("\"}]}");
+            }
+            json.append("],\"services\":[{\"id\":\"PSV").append(i).append("\",\"type\":\"service_reference\",")
+                .append("\"summary\":\"Checkout API\",\"self\":\"https://api.pagerduty.com/services/PSV").append(i).append("\"}],")
+                .append("\"num_loops\":2,\"teams\":[{\"id\":\"PT").append(i).append("\",\"type\":\"team_reference\",")
+                .append("\"summary\":\"Payments\"}],\"description\":\"Escalation for team ").append(i).append(" services\",")
+                .append("\"on_call_handoff_notifications\":\"if_has_services\",\"privilege\":null}");
+        }
+        return json.append("],\"limit\":100,\"offset\":0,\"more\":true,\"total\":1000}").toString();
+    }
+}
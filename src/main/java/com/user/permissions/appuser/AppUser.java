@@ -3,12 +3,21 @@ package com.user.permissions.appuser;
 import jakarta.persistence.*;
 import java.time.LocalDateTime;
 
+import org.hibernate.annotations.DynamicUpdate;
+
+import com.user.permissions.appuser.search.AppUserIndexListener;
+
 @Entity
+// No secondary indexes on name/role: search filters on lower(col) LIKE '%q%', which no B-tree can serve
 @Table(name = "users")
+@EntityListeners(AppUserIndexListener.class)
+@DynamicUpdate // UPDATE lists only the changed columns, profile edits don't rewrite the password hash
 public class AppUser {
     
+    // Pooled sequence instead of IDENTITY, which would disable JDBC insert batching
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "users_seq")
+    @SequenceGenerator(name = "users_seq", sequenceName = "users_seq", allocationSize = 50)
     private Long id;
     
     @Column(unique = true, nullable = false)
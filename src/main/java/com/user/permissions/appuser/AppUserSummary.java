@@ -0,0 +1,17 @@
+package com.user.permissions.appuser;
+
+import java.time.LocalDateTime;
+
+/**
+ * Read-only view of a user for the read endpoints.
+ * Selected through constructor expressions, so the password column is never loaded
+ * and the rows are not managed by the persistence context.
+ */
+public record AppUserSummary(
+    Long id,
+    String email,
+    String name,
+    String role,
+    LocalDateTime createdAt,
+    LocalDateTime updatedAt
+) {}
@@ -0,0 +1,22 @@
+package com.user.permissions.appuser;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * Cheap aggregate describing the state of a set of users (row count, highest id, latest update).
+ * Any insert, update or delete in the set changes it, so it doubles as a strong ETag.
+ */
+public record AppUserVersion(Long count, Long maxId, LocalDateTime lastUpdated) {
+
+    public boolean isEmpty() {
+        return count == null || count == 0;
+    }
+
+    public String etag() {
+        long updatedNanos = lastUpdated != null
+            ? lastUpdated.toEpochSecond(ZoneOffset.UTC) * 1_000_000_000L + lastUpdated.getNano()
+            : 0L;
+        return "\"" + count + "-" + (maxId != null ? maxId : 0) + "-" + Long.toHexString(updatedNanos) + "\"";
+    }
+}
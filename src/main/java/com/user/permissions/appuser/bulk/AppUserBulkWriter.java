@@ -0,0 +1,39 @@
+package com.user.permissions.appuser.bulk;
+
+import java.util.List;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.user.permissions.appuser.AppUser;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+/**
+ * Inserts many users in one transaction through JDBC batching.
+ * The persistence context is flushed and cleared every batch so it stays small.
+ */
+@Component
+public class AppUserBulkWriter {
+
+    // Keep in sync with spring.jpa.properties.hibernate.jdbc.batch_size
+    private static final int BATCH_SIZE = 50;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Transactional
+    public List<AppUser> insertAll(List<AppUser> users) {
+        for (int i = 0; i < users.size(); i++) {
+            entityManager.persist(users.get(i));
+            if ((i + 1) % BATCH_SIZE == 0) {
+                entityManager.flush();
+                entityManager.clear();
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+        return users;
+    }
+}
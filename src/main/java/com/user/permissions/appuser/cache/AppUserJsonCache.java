@@ -0,0 +1,133 @@
+package com.user.permissions.appuser.cache;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.user.permissions.appuser.AppUserSummary;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Bounded LRU cache of each user's serialized JSON, keyed by id and validated against updatedAt.
+ * Read responses are assembled by splicing these fragments instead of re-serializing every user.
+ */
+@Component
+public class AppUserJsonCache {
+
+    private static final byte[] USERS_PREFIX = "{\"success\":true,\"users\":[".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] USER_PREFIX = "{\"success\":true,\"user\":".getBytes(StandardCharsets.UTF_8);
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${users.json-cache.max-entries:10000}")
+    private int maxEntries;
+
+    private Map<Long, CachedJson> entries;
+
+    @PostConstruct
+    void init() {
+        entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, CachedJson> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    /** Serialized user, reused as long as updatedAt hasn't changed. */
+    public byte[] userJson(AppUserSummary user) throws IOException {
+        synchronized (entries) {
+            CachedJson cached = entries.get(user.id());
+            if (cached != null && Objects.equals(cached.updatedAt(), user.updatedAt())) {
+                return cached.json();
+            }
+        }
+        byte[] json = serialize(user);
+        synchronized (entries) {
+            entries.put(user.id(), new CachedJson(user.updatedAt(), json));
+        }
+        return json;
+    }
+
+    public void invalidate(Long id) {
+        synchronized (entries) {
+            entries.remove(id);
+        }
+    }
+
+    public void invalidateAll(Collection<Long> ids) {
+        synchronized (entries) {
+            for (Long id : ids) {
+                entries.remove(id);
+            }
+        }
+    }
+
+    /** {"success":true,"users":[...]} followed by the extra fields, in iteration order. */
+    public byte[] usersResponse(List<AppUserSummary> users, Map<String, Object> extraFields) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(64 + users.size() * 192);
+        out.writeBytes(USERS_PREFIX);
+        for (int i = 0; i < users.size(); i++) {
+            if (i > 0) {
+                out.write(',');
+            }
+            out.writeBytes(userJson(users.get(i)));
+        }
+        out.write(']');
+        writeFields(out, extraFields);
+        out.write('}');
+        return out.toByteArray();
+    }
+
+    /** {"success":true,"user":{...}} */
+    public byte[] userResponse(AppUserSummary user) throws IOException {
+        byte[] json = userJson(user);
+        ByteArrayOutputStream out = new ByteArrayOutputStream(USER_PREFIX.length + json.length + 1);
+        out.writeBytes(USER_PREFIX);
+        out.writeBytes(json);
+        out.write('}');
+        return out.toByteArray();
+    }
+
+    private void writeFields(ByteArrayOutputStream out, Map<String, Object> fields) throws IOException {
+        for (Map.Entry<String, Object> field : fields.entrySet()) {
+            out.write(',');
+            out.writeBytes(objectMapper.writeValueAsBytes(field.getKey()));
+            out.write(':');
+            out.writeBytes(objectMapper.writeValueAsBytes(field.getValue()));
+        }
+    }
+
+    // Same shape the read endpoints always returned (exclude passwords)
+    private byte[] serialize(AppUserSummary user) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(192);
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out, JsonEncoding.UTF8)) {
+            generator.writeStartObject();
+            generator.writeNumberField("id", user.id());
+            generator.writeStringField("email", user.email());
+            generator.writeStringField("name", user.name());
+            generator.writeStringField("role", user.role());
+            generator.writeStringField("createdAt", user.createdAt() != null ? user.createdAt().toString() : null);
+            generator.writeStringField("updatedAt", user.updatedAt() != null ? user.updatedAt().toString() : null);
+            generator.writeEndObject();
+        }
+        return out.toByteArray();
+    }
+
+    private record CachedJson(LocalDateTime updatedAt, byte[] json) {}
+}
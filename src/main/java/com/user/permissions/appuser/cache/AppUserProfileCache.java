@@ -0,0 +1,93 @@
+package com.user.permissions.appuser.cache;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.user.permissions.appuser.AppUserSummary;
+import com.user.permissions.appuser.repository.AppUserRepository;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Bounded read-through LRU cache of user profiles keyed by id.
+ * Sessions only carry a principal, so anything showing the profile reads it from here.
+ * Writes on this node invalidate their entry; the TTL bounds how long a change made on another node can go unseen.
+ * Missing users are cached too, so a deleted user's leftover credentials do not query the database on every request.
+ */
+@Component
+public class AppUserProfileCache {
+
+    @Autowired
+    private AppUserRepository appUserRepository;
+
+    @Value("${users.profile-cache.max-entries:10000}")
+    private int maxEntries;
+
+    @Value("${users.profile-cache.ttl:30s}")
+    private Duration ttl;
+
+    private Map<Long, Entry> entries;
+
+    // Bumped by every invalidation, a load that raced one is returned but not cached
+    private long generation;
+
+    // profile is null for a user that does not exist
+    private record Entry(AppUserSummary profile, long loadedAt) {
+    }
+
+    @PostConstruct
+    void init() {
+        entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Entry> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    public Optional<AppUserSummary> get(Long id) {
+        long now = System.nanoTime();
+        long loadGeneration;
+        synchronized (entries) {
+            Entry cached = entries.get(id);
+            if (cached != null) {
+                if (now - cached.loadedAt() < ttl.toNanos()) {
+                    return Optional.ofNullable(cached.profile());
+                }
+                entries.remove(id);
+            }
+            loadGeneration = generation;
+        }
+        Optional<AppUserSummary> loaded = appUserRepository.findSummaryById(id);
+        synchronized (entries) {
+            // An invalidation since the read means the row may have changed under it
+            if (generation == loadGeneration) {
+                entries.put(id, new Entry(loaded.orElse(null), now));
+            }
+        }
+        return loaded;
+    }
+
+    public void invalidate(Long id) {
+        synchronized (entries) {
+            generation++;
+            entries.remove(id);
+        }
+    }
+
+    public void invalidateAll(Collection<Long> ids) {
+        synchronized (entries) {
+            generation++;
+            for (Long id : ids) {
+                entries.remove(id);
+            }
+        }
+    }
+}
@@ -1,6 +1,15 @@
 package com.user.permissions.appuser.controller;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.web.bind.annotation.CrossOrigin;
@@ -8,22 +17,47 @@ import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import com.user.permissions.appuser.AppUser;
+import com.user.permissions.appuser.AppUserSummary;
+import com.user.permissions.appuser.AppUserVersion;
+import com.user.permissions.appuser.bulk.AppUserBulkWriter;
+import com.user.permissions.appuser.cache.AppUserJsonCache;
+import com.user.permissions.appuser.cache.AppUserProfileCache;
+import com.user.permissions.appuser.export.AppUserExporter;
 import com.user.permissions.appuser.repository.AppUserRepository;
+import com.user.permissions.appuser.request.CreateUserRequest;
+import com.user.permissions.appuser.request.UpdateUserRequest;
+import com.user.permissions.appuser.search.AppUserTrigramIndex;
+import com.user.permissions.appuser.validation.AppUserValidator;
+import com.user.permissions.appuser.validation.ValidationErrors;
+import com.user.permissions.auth.session.SessionPrincipal;
+import com.user.permissions.auth.session.CurrentPrincipal;
 
-import jakarta.servlet.http.HttpSession;
 
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
 import java.util.stream.Collectors;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.Deque;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
 
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestParam;
 
 @RestController
@@ -31,50 +65,109 @@ import org.springframework.web.bind.annotation.RequestParam;
 @CrossOrigin(origins = "http://localhost:3001", allowCredentials = "true")
 public class AppUserController {
 	
+	private static final int DEFAULT_CURSOR_LIMIT = 50;
+	private static final int MAX_BULK_USERS = 1000;
+	
 	@Autowired
 	private AppUserRepository appUserRepository; 
 	
     @Autowired
     private PasswordEncoder passwordEncoder;
+    
+    @Autowired
+    private AppUserExporter appUserExporter;
+    
+    @Autowired
+    private AppUserTrigramIndex appUserTrigramIndex;
+    
+    @Autowired
+    private AppUserJsonCache appUserJsonCache;
+    
+    @Autowired
+    private AppUserProfileCache appUserProfileCache;
+    
+    @Autowired
+    private AppUserValidator appUserValidator;
+    
+    // Resolved by PrincipalFilter, anonymous requests never get here
+    @Autowired
+    private CurrentPrincipal currentPrincipal;
+    
+    @Autowired
+    private AppUserBulkWriter appUserBulkWriter;
+    
+    @Autowired
+    @Qualifier("passwordHashingExecutor")
+    private ThreadPoolExecutor passwordHashingExecutor;
 	
 	@GetMapping("/list")
-	public ResponseEntity<?> listUsers(HttpSession session) {
-	    AppUser sessionUser = (AppUser) session.getAttribute("user");
-	    Boolean authenticated = (Boolean) session.getAttribute("authenticated");
-	    
-	    // Check authentication
-	    if (sessionUser == null || !Boolean.TRUE.equals(authenticated)) {
-	        return ResponseEntity.status(401).body(Map.of("error", "Not authenticated"));
-	    }
+	public ResponseEntity<?> listUsers(
+	        @RequestParam(value = "after" , required = false) String after,
+	        @RequestParam(value = "limit" , required = false) Integer limit,
+	        @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+	    SessionPrincipal sessionUser = currentPrincipal.get();
 	    
 	    // Check if user has permission to list users (only ADMIN role)
-	    //if (!"ADMIN".equals(sessionUser.getRole())) {
+	    //if (!sessionUser.isAdmin()) {
 	    //    return ResponseEntity.status(403).body(Map.of("error", "Access denied. Admin privileges required."));
 	    //}
 	    
+	    // Unchanged table: answer 304 from one aggregate query, without loading or serializing users
+	    String etag = appUserRepository.findVersion().etag();
+	    if (etagMatches(ifNoneMatch, etag)) {
+	        return notModified(etag);
+	    }
+	    
+	    // Cursor mode: page through users by id without ever materializing the whole table
+	    if (after != null || limit != null) {
+	        return listUsersAfterCursor(after, limit != null ? limit : DEFAULT_CURSOR_LIMIT, etag);
+	    }
+	    
 	    try {
-	        // Get all users from database
-	        List<AppUser> users = appUserRepository.findAll();
-	        
-	        // Convert to response format (exclude passwords) - using HashMap to allow null values
-	        List<Map<String, Object>> userList = users.stream()
-	            .map(user -> {
-	                Map<String, Object> userMap = new HashMap<>();
-	                userMap.put("id", user.getId());
-	                userMap.put("email", user.getEmail());
-	                userMap.put("name", user.getName());
-	                userMap.put("role", user.getRole());
-	                userMap.put("createdAt", user.getCreatedAt() != null ? user.getCreatedAt().toString() : null);
-	                userMap.put("updatedAt", user.getUpdatedAt() != null ? user.getUpdatedAt().toString() : null);
-	                return userMap;
-	            })
-	            .collect(Collectors.toList());
+	        // Get all users from database, as password-free summaries
+	        List<AppUserSummary> users = appUserRepository.findAllSummaries();
 	        
-	        return ResponseEntity.ok(Map.of(
-	            "success", true,
-	            "users", userList,
-	            "totalCount", userList.size()
+	        // Response is spliced from cached per-user JSON
+	        return jsonResponse(appUserJsonCache.usersResponse(users, Map.of("totalCount", users.size())), etag);
+	        
+	    } catch (Exception e) {
+	        return ResponseEntity.status(500).body(Map.of(
+	            "success", false,
+	            "error", "Failed to retrieve users. Please try again."
 	        ));
+	    }
+	}
+
+	private ResponseEntity<?> listUsersAfterCursor(String after, int limit, String etag) {
+	    if (limit < 1 || limit > 100) {
+	        return ResponseEntity.badRequest().body(Map.of(
+	            "success", false,
+	            "error", "Limit must be between 1 and 100"
+	        ));
+	    }
+	    
+	    Long afterId = decodeCursor(after);
+	    if (afterId == null) {
+	        return ResponseEntity.badRequest().body(Map.of(
+	            "success", false,
+	            "error", "Invalid cursor"
+	        ));
+	    }
+	    
+	    try {
+	        // Fetch one extra row to know whether there is a next page without a count query
+	        List<AppUserSummary> users = appUserRepository.findSummariesAfter(afterId, Limit.of(limit + 1));
+	        boolean hasMore = users.size() > limit;
+	        if (hasMore) {
+	            users = users.subList(0, limit);
+	        }
+	        
+	        // LinkedHashMap keeps field order and allows a null cursor on the last page
+	        Map<String, Object> fields = new LinkedHashMap<>();
+	        fields.put("limit", limit);
+	        fields.put("hasMore", hasMore);
+	        fields.put("nextCursor", hasMore ? encodeCursor(users.get(users.size() - 1).id()) : null);
+	        return jsonResponse(appUserJsonCache.usersResponse(users, fields), etag);
 	        
 	    } catch (Exception e) {
 	        return ResponseEntity.status(500).body(Map.of(
@@ -83,88 +176,120 @@ public class AppUserController {
 	        ));
 	    }
 	}
+	
+	// Cursors are opaque to clients: base64url of the last id seen
+	private static String encodeCursor(Long id) {
+	    return Base64.getUrlEncoder().withoutPadding()
+	        .encodeToString(id.toString().getBytes(StandardCharsets.US_ASCII));
+	}
+	
+	// Returns null for malformed cursors, an absent cursor starts from the beginning
+	private static Long decodeCursor(String cursor) {
+	    if (cursor == null || cursor.trim().isEmpty()) {
+	        return 0L;
+	    }
+	    try {
+	        byte[] decoded = Base64.getUrlDecoder().decode(cursor.trim());
+	        long id = Long.parseLong(new String(decoded, StandardCharsets.US_ASCII));
+	        return id >= 0 ? id : null;
+	    } catch (IllegalArgumentException e) {
+	        return null;
+	    }
+	}
+
+	@GetMapping("/export")
+	public ResponseEntity<?> exportUsers(
+	        @RequestParam(value = "format", defaultValue = "ndjson") String format) {
+	    SessionPrincipal sessionUser = currentPrincipal.get();
+	    
+	    // Full user dumps are restricted to admins
+	    if (!sessionUser.isAdmin()) {
+	        return ResponseEntity.status(403).body(Map.of("error", "Access denied. Admin privileges required."));
+	    }
+	    
+	    // Rows are written straight to the response as they are read, nothing is buffered per user
+	    StreamingResponseBody body;
+	    MediaType contentType;
+	    String fileName;
+	    if ("ndjson".equalsIgnoreCase(format)) {
+	        body = appUserExporter::writeNdjson;
+	        contentType = MediaType.parseMediaType("application/x-ndjson");
+	        fileName = "users.ndjson";
+	    } else if ("csv".equalsIgnoreCase(format)) {
+	        body = appUserExporter::writeCsv;
+	        contentType = MediaType.parseMediaType("text/csv");
+	        fileName = "users.csv";
+	    } else {
+	        return ResponseEntity.badRequest().body(Map.of(
+	            "success", false,
+	            "error", "Format must be either ndjson or csv"
+	        ));
+	    }
+	    
+	    return ResponseEntity.ok()
+	        .contentType(contentType)
+	        .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + fileName + "\"")
+	        .body(body);
+	}
 
 	@GetMapping("/search")
 	public ResponseEntity<?> searchUsers(
 	        @RequestParam(value = "email" , required = false) String email,
 	        @RequestParam(value = "name"  , required = false) String name,
 	        @RequestParam(value = "role"  , required = false) String role,
-	        HttpSession session) {
-	    
-	    AppUser sessionUser = (AppUser) session.getAttribute("user");
-	    Boolean authenticated = (Boolean) session.getAttribute("authenticated");
+	        @RequestParam(value = "page"  , defaultValue = "1") int page,
+	        @RequestParam(value = "size"  , defaultValue = "50") int size,
+	        @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
 	    
-	    // Check authentication
-	    if (sessionUser == null || !Boolean.TRUE.equals(authenticated)) {
-	        return ResponseEntity.status(401).body(Map.of("error", "Not authenticated"));
-	    }
+	    SessionPrincipal sessionUser = currentPrincipal.get();
 	    
 	    // Check if user has permission (only ADMIN role)
-	    if (!"ADMIN".equals(sessionUser.getRole())) {
+	    if (!sessionUser.isAdmin()) {
 	        return ResponseEntity.status(403).body(Map.of("error", "Access denied. Admin privileges required."));
 	    }
 	    
+	    if (page < 1) {
+	        return ResponseEntity.badRequest().body(Map.of(
+	            "success", false,
+	            "error", "Page number must be greater than 0"
+	        ));
+	    }
+	    
+	    if (size < 1 || size > 100) {
+	        return ResponseEntity.badRequest().body(Map.of(
+	            "success", false,
+	            "error", "Page size must be between 1 and 100"
+	        ));
+	    }
+	    
+	    // Search results can only change when the table does
+	    String etag = appUserRepository.findVersion().etag();
+	    if (etagMatches(ifNoneMatch, etag)) {
+	        return notModified(etag);
+	    }
+	    
 	    try {
-	        List<AppUser> users;
+	        PageRequest pageRequest = PageRequest.of(page - 1, size, Sort.by("id"));
+	        Page<AppUserSummary> result;
 	        
-	        // If no search parameters provided, return all users
-	        if ((email == null || email.trim().isEmpty()) && 
-	            (name == null || name.trim().isEmpty()) && 
-	            (role == null || role.trim().isEmpty())) {
-	            users = appUserRepository.findAll();
+	        // Substring criteria of 3+ chars are answered by the trigram index, only the page itself is loaded
+	        long[] matchingIds = appUserTrigramIndex.search(email, name, role);
+	        if (matchingIds != null) {
+	            result = loadIndexedPage(matchingIds, pageRequest);
 	        } else {
-	        
-	        	// Search with filters
-	            users = appUserRepository.findAll().stream()
-	                .filter(user -> {
-	                    boolean matches = true;
-	                    
-	                    if (email != null && !email.trim().isEmpty()) {
-	                        matches = matches && user.getEmail().toLowerCase()
-	                            .contains(email.trim().toLowerCase());
-	                    }
-	                    
-	                    if (name != null && !name.trim().isEmpty()) {
-	                        matches = matches && user.getName().toLowerCase()
-	                            .contains(name.trim().toLowerCase());
-	                    }
-	                    
-	                    if (role != null && !role.trim().isEmpty()) {
-	                        matches = matches && user.getRole().toLowerCase()
-	                            .contains(role.trim().toLowerCase());
-	                    }
-	                    
-	                    return matches;
-	                })
-	                .collect(Collectors.toList());
+	            // Filter, sort and paginate in the database instead of loading the whole table
+	            result = appUserRepository.search(email, name, role, pageRequest);
 	        }
 	        
-	        // Convert to response format
-	        // Convert to response format (exclude passwords) - using HashMap to allow null values
-	        List<Map<String, Object>> userList = users.stream()
-	            .map(user -> {
-	                Map<String, Object> userMap = new HashMap<>();
-	                userMap.put("id", user.getId());
-	                userMap.put("email", user.getEmail());
-	                userMap.put("name", user.getName());
-	                userMap.put("role", user.getRole());
-	                userMap.put("createdAt", user.getCreatedAt() != null ? user.getCreatedAt().toString() : null);
-	                userMap.put("updatedAt", user.getUpdatedAt() != null ? user.getUpdatedAt().toString() : null);
-	                return userMap;
-	            })
-	            .collect(Collectors.toList());
-
-	        
-	        return ResponseEntity.ok(Map.of(
-	            "success", true,
-	            "users", userList,
-	            "totalCount", userList.size(),
-	            "searchCriteria", Map.of(
-	                "email", email != null ? email : "",
-	                "name", name != null ? name : "",
-	                "role", role != null ? role : ""
-	            )
+	        // Response is spliced from cached per-user JSON
+	        Map<String, Object> fields = new LinkedHashMap<>();
+	        fields.put("totalCount", result.getTotalElements());
+	        fields.put("searchCriteria", Map.of(
+	            "email", email != null ? email : "",
+	            "name", name != null ? name : "",
+	            "role", role != null ? role : ""
 	        ));
+	        return jsonResponse(appUserJsonCache.usersResponse(result.getContent(), fields), etag);
 	        
 	    } catch (Exception e) {
 	        return ResponseEntity.status(500).body(Map.of(
@@ -174,40 +299,44 @@ public class AppUserController {
 	    }
 	}
 
-	@GetMapping("/get/{id}")
-	public ResponseEntity<?> getUserById(@PathVariable("id") Long id, HttpSession session) {
-	    AppUser sessionUser = (AppUser) session.getAttribute("user");
-	    Boolean authenticated = (Boolean) session.getAttribute("authenticated");
+	private Page<AppUserSummary> loadIndexedPage(long[] matchingIds, PageRequest pageRequest) {
+	    int from = (int) Math.min(pageRequest.getOffset(), matchingIds.length);
+	    int to = Math.min(from + pageRequest.getPageSize(), matchingIds.length);
 	    
-	    // Check authentication
-	    if (sessionUser == null || !Boolean.TRUE.equals(authenticated)) {
-	        return ResponseEntity.status(401).body(Map.of("error", "Not authenticated"));
+	    List<Long> pageIds = new ArrayList<>(to - from);
+	    for (int i = from; i < to; i++) {
+	        pageIds.add(matchingIds[i]);
 	    }
 	    
+	    // IN queries don't guarantee order, ids are already sorted
+	    List<AppUserSummary> content = pageIds.isEmpty() ? List.of() : appUserRepository.findSummariesByIdIn(pageIds).stream()
+	        .sorted(Comparator.comparing(AppUserSummary::id))
+	        .collect(Collectors.toList());
+	    return new PageImpl<>(content, pageRequest, matchingIds.length);
+	}
+
+	@GetMapping("/get/{id}")
+	public ResponseEntity<?> getUserById(
+	        @PathVariable("id") Long id,
+	        @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+	    SessionPrincipal sessionUser = currentPrincipal.get();
+	    
 	    // Users can view their own profile, admins can view any profile
-	    if (!"ADMIN".equals(sessionUser.getRole()) && !sessionUser.getId().equals(id)) {
+	    if (!sessionUser.isAdmin() && !sessionUser.id().equals(id)) {
 	        return ResponseEntity.status(403).body(Map.of("error", "Access denied. You can only view your own profile."));
 	    }
 	    
 	    try {
-	        Optional<AppUser> userOpt = appUserRepository.findById(id);
+	        // ETag comes from updatedAt, a matching one is answered without loading the user
+	        AppUserVersion version = appUserRepository.findVersionById(id);
+	        if (!version.isEmpty() && etagMatches(ifNoneMatch, version.etag())) {
+	            return notModified(version.etag());
+	        }
+	        
+	        Optional<AppUserSummary> userOpt = version.isEmpty() ? Optional.empty() : appUserRepository.findSummaryById(id);
 	        
 	        if (userOpt.isPresent()) {
-	            AppUser user = userOpt.get();
-	            
-	            Map<String, Object> userMap = Map.of(
-	                "id", user.getId(),
-	                "email", user.getEmail(),
-	                "name", user.getName(),
-	                "role", user.getRole(),
-	                "createdAt", user.getCreatedAt() != null ? user.getCreatedAt().toString() : null,
-	                "updatedAt", user.getUpdatedAt() != null ? user.getUpdatedAt().toString() : null
-	            );
-	            
-	            return ResponseEntity.ok(Map.of(
-	                "success", true,
-	                "user", userMap
-	            ));
+	            return jsonResponse(appUserJsonCache.userResponse(userOpt.get()), version.etag());
 	        } else {
 	            return ResponseEntity.status(404).body(Map.of(
 	                "success", false,
@@ -225,47 +354,25 @@ public class AppUserController {
 	
 	
 	@PostMapping("/create")
-	public ResponseEntity<?> createUser(@RequestBody Map<String, String> userRequest, HttpSession session) {
-	    AppUser sessionUser = (AppUser) session.getAttribute("user");
-	    Boolean authenticated = (Boolean) session.getAttribute("authenticated");
-	    
-	    // Check authentication
-	    if (sessionUser == null || !Boolean.TRUE.equals(authenticated)) {
-	        return ResponseEntity.status(401).body(Map.of("error", "Not authenticated"));
-	    }
+	public ResponseEntity<?> createUser(@RequestBody CreateUserRequest userRequest) {
+	    SessionPrincipal sessionUser = currentPrincipal.get();
 	    
 	    // Check if user has permission to create users (only ADMIN role)
-	    if (!"ADMIN".equals(sessionUser.getRole())) {
+	    if (!sessionUser.isAdmin()) {
 	        return ResponseEntity.status(403).body(Map.of("error", "Access denied. Admin privileges required."));
 	    }
 	    
 	    try {
-	        // Validate required fields
-	        String email = userRequest.get("email");
-	        String password = userRequest.get("password");
-	        String name = userRequest.get("name");
-	        String role = userRequest.get("role");
-	        
-	        if (email == null || email.trim().isEmpty()) {
-	            return ResponseEntity.status(400).body(Map.of("error", "Email is required"));
+	        // Validate required fields and role values, the first failing field is reported
+	        ValidationErrors validationErrors = appUserValidator.validateNewUser(userRequest);
+	        if (!validationErrors.isEmpty()) {
+	            return ResponseEntity.status(400).body(Map.of("error", validationErrors.first()));
 	        }
 	        
-	        if (password == null || password.trim().isEmpty()) {
-	            return ResponseEntity.status(400).body(Map.of("error", "Password is required"));
-	        }
-	        
-	        if (name == null || name.trim().isEmpty()) {
-	            return ResponseEntity.status(400).body(Map.of("error", "Name is required"));
-	        }
-	        
-	        if (role == null || role.trim().isEmpty()) {
-	            return ResponseEntity.status(400).body(Map.of("error", "Role is required"));
-	        }
-	        
-	        // Validate role values
-	        if (!role.equals("USER") && !role.equals("ADMIN")) {
-	            return ResponseEntity.status(400).body(Map.of("error", "Role must be either USER or ADMIN"));
-	        }
+	        String email = userRequest.email();
+	        String password = userRequest.password();
+	        String name = userRequest.name();
+	        String role = userRequest.role();
 	        
 	        // Check if email already exists
 	        if (appUserRepository.findByEmail(email.trim()).isPresent()) {
@@ -305,18 +412,126 @@ public class AppUserController {
 	    }
 	}
 
-	@PutMapping("/update/{id}")
-	public ResponseEntity<?> updateUser(@PathVariable("id") Long id, @RequestBody Map<String, String> userRequest, HttpSession session) {
-	    AppUser sessionUser = (AppUser) session.getAttribute("user");
-	    Boolean authenticated = (Boolean) session.getAttribute("authenticated");
+	@PostMapping("/bulk")
+	public ResponseEntity<?> bulkCreateUsers(@RequestBody List<CreateUserRequest> usersRequest) {
+	    SessionPrincipal sessionUser = currentPrincipal.get();
+	    
+	    // Check if user has permission to create users (only ADMIN role)
+	    if (!sessionUser.isAdmin()) {
+	        return ResponseEntity.status(403).body(Map.of("error", "Access denied. Admin privileges required."));
+	    }
+	    
+	    if (usersRequest == null || usersRequest.isEmpty()) {
+	        return ResponseEntity.status(400).body(Map.of("error", "At least one user is required"));
+	    }
 	    
-	    // Check authentication
-	    if (sessionUser == null || !Boolean.TRUE.equals(authenticated)) {
-	        return ResponseEntity.status(401).body(Map.of("error", "Not authenticated"));
+	    if (usersRequest.size() > MAX_BULK_USERS) {
+	        return ResponseEntity.status(400).body(Map.of("error", "At most " + MAX_BULK_USERS + " users can be created per request"));
+	    }
+	    
+	    try {
+	        // Validate every entry in one pass, same rules as /create
+	        List<Map<String, Object>> errors = new ArrayList<>();
+	        Map<String, Integer> emailToIndex = new HashMap<>();
+	        for (int i = 0; i < usersRequest.size(); i++) {
+	            CreateUserRequest userRequest = usersRequest.get(i);
+	            
+	            String error = appUserValidator.validateNewUser(userRequest).first();
+	            if (error == null && emailToIndex.putIfAbsent(userRequest.email().trim().toLowerCase(), i) != null) {
+	                error = "Duplicate email in request";
+	            }
+	            
+	            if (error != null) {
+	                errors.add(Map.of("index", i, "error", error));
+	            }
+	        }
+	        
+	        // One IN query instead of a findByEmail per user
+	        if (!emailToIndex.isEmpty()) {
+	            for (String existingEmail : appUserRepository.findExistingEmails(emailToIndex.keySet())) {
+	                errors.add(Map.of("index", emailToIndex.get(existingEmail), "error", "Email already exists"));
+	            }
+	        }
+	        
+	        // All or nothing: a single invalid entry rejects the whole batch
+	        if (!errors.isEmpty()) {
+	            errors.sort(Comparator.comparing(error -> (Integer) error.get("index")));
+	            return ResponseEntity.status(400).body(Map.of(
+	                "success", false,
+	                "errors", errors
+	            ));
+	        }
+	        
+	        // Bcrypt dominates the cost of a batch, hash on the shared pool
+	        List<String> hashes;
+	        try {
+	            hashes = hashPasswords(usersRequest);
+	        } catch (RejectedExecutionException e) {
+	            return ResponseEntity.status(503)
+	                .header(HttpHeaders.RETRY_AFTER, "5")
+	                .body(Map.of(
+	                    "success", false,
+	                    "error", "Too many password hashes in progress. Please try again shortly."
+	                ));
+	        }
+	        
+	        List<AppUser> newUsers = new ArrayList<>(usersRequest.size());
+	        for (int i = 0; i < usersRequest.size(); i++) {
+	            CreateUserRequest userRequest = usersRequest.get(i);
+	            AppUser newUser = new AppUser();
+	            newUser.setEmail(userRequest.email().trim().toLowerCase());
+	            newUser.setPassword(hashes.get(i));
+	            newUser.setName(userRequest.name().trim());
+	            newUser.setRole(userRequest.role().trim().toUpperCase());
+	            newUsers.add(newUser);
+	        }
+	        
+	        List<AppUser> savedUsers = appUserBulkWriter.insertAll(newUsers);
+	        
+	        List<Map<String, Object>> createdUsers = savedUsers.stream()
+	            .map(user -> Map.<String, Object>of("id", user.getId(), "email", user.getEmail()))
+	            .collect(Collectors.toList());
+	        
+	        return ResponseEntity.status(201).body(Map.of(
+	            "success", true,
+	            "message", "Users created successfully",
+	            "createdCount", createdUsers.size(),
+	            "users", createdUsers
+	        ));
+	        
+	    } catch (Exception e) {
+	        return ResponseEntity.status(500).body(Map.of(
+	            "success", false,
+	            "error", "Failed to create users. Please try again."
+	        ));
 	    }
+	}
+
+	// Streams the batch through the pool: at most one hash per pool thread is in flight for this request,
+	// so a large batch never fills the queue ahead of other work
+	private List<String> hashPasswords(List<CreateUserRequest> usersRequest) {
+	    int window = passwordHashingExecutor.getMaximumPoolSize();
+	    List<String> hashes = new ArrayList<>(usersRequest.size());
+	    Deque<CompletableFuture<String>> inFlight = new ArrayDeque<>(window);
+	    for (CreateUserRequest userRequest : usersRequest) {
+	        if (inFlight.size() >= window) {
+	            hashes.add(inFlight.removeFirst().join());
+	        }
+	        inFlight.addLast(CompletableFuture.supplyAsync(
+	            () -> passwordEncoder.encode(userRequest.password()), passwordHashingExecutor));
+	    }
+	    while (!inFlight.isEmpty()) {
+	        hashes.add(inFlight.removeFirst().join());
+	    }
+	    return hashes;
+	}
+
+	@PutMapping("/update/{id}")
+	public ResponseEntity<?> updateUser(@PathVariable("id") Long id, @RequestBody UpdateUserRequest userRequest) {
+	    SessionPrincipal sessionUser = currentPrincipal.get();
 	    
 	    // Users can update their own profile, admins can update any profile
-	    if (!"ADMIN".equals(sessionUser.getRole()) && !sessionUser.getId().equals(id)) {
+	    if (!sessionUser.isAdmin() && !sessionUser.id().equals(id)) {
 	        return ResponseEntity.status(403).body(Map.of("error", "Access denied. You can only update your own profile."));
 	    }
 	    
@@ -331,53 +546,52 @@ public class AppUserController {
 	        }
 	        
 	        AppUser userToUpdate = userOpt.get();
-	        boolean isUpdated = false;
 	        
-	        // Update email if provided
-	        String email = userRequest.get("email");
-	        if (email != null && !email.trim().isEmpty()) {
+	        // Check if new email already exists (excluding current user)
+	        String email = userRequest.email();
+	        if (!AppUserValidator.isBlank(email)) {
 	            email = email.trim().toLowerCase();
-	            // Check if new email already exists (excluding current user)
 	            Optional<AppUser> existingEmailUser = appUserRepository.findByEmail(email);
 	            if (existingEmailUser.isPresent() && !existingEmailUser.get().getId().equals(id)) {
 	                return ResponseEntity.status(400).body(Map.of("error", "Email already exists"));
 	            }
+	        }
+	        
+	        // Only admins can change roles
+	        if (!AppUserValidator.isBlank(userRequest.role()) && !sessionUser.isAdmin()) {
+	            return ResponseEntity.status(403).body(Map.of("error", "Only admins can update user roles"));
+	        }
+	        
+	        ValidationErrors validationErrors = appUserValidator.validateUserUpdate(userRequest);
+	        if (!validationErrors.isEmpty()) {
+	            return ResponseEntity.status(400).body(Map.of("error", validationErrors.first()));
+	        }
+	        
+	        // Update email if provided
+	        if (!AppUserValidator.isBlank(email)) {
 	            userToUpdate.setEmail(email);
-	            isUpdated = true;
 	        }
 	        
 	        // Update name if provided
-	        String name = userRequest.get("name");
-	        if (name != null && !name.trim().isEmpty()) {
+	        String name = userRequest.name();
+	        if (!AppUserValidator.isBlank(name)) {
 	            userToUpdate.setName(name.trim());
-	            isUpdated = true;
 	        }
 	        
-	        // Update role if provided (only admins can change roles)
-	        String role = userRequest.get("role");
-	        if (role != null && !role.trim().isEmpty()) {
-	            if (!"ADMIN".equals(sessionUser.getRole())) {
-	                return ResponseEntity.status(403).body(Map.of("error", "Only admins can update user roles"));
-	            }
-	            if (!role.equals("USER") && !role.equals("ADMIN")) {
-	                return ResponseEntity.status(400).body(Map.of("error", "Role must be either USER or ADMIN"));
-	            }
+	        // Update role if provided
+	        String role = userRequest.role();
+	        if (!AppUserValidator.isBlank(role)) {
 	            userToUpdate.setRole(role.trim().toUpperCase());
-	            isUpdated = true;
 	        }
 	        
 	        // Update password if provided
-	        String password = userRequest.get("password");
-	        if (password != null && !password.trim().isEmpty()) {
+	        String password = userRequest.password();
+	        if (!AppUserValidator.isBlank(password)) {
 	            userToUpdate.setPassword(passwordEncoder.encode(password));
-	            isUpdated = true;
-	        }
-	        
-	        if (!isUpdated) {
-	            return ResponseEntity.status(400).body(Map.of("error", "No valid fields provided for update"));
 	        }
 	        
 	        AppUser updatedUser = appUserRepository.save(userToUpdate);
+	        appUserJsonCache.invalidate(id);
 	        
 	        // Return updated user (without password)
 	        Map<String, Object> userMap = Map.of(
@@ -404,22 +618,116 @@ public class AppUserController {
 	}
 	
 	
-	@DeleteMapping("/delete/{id}")
-	public ResponseEntity<?> deleteUser(@PathVariable("id") Long id, HttpSession session) {
-	    AppUser sessionUser = (AppUser) session.getAttribute("user");
-	    Boolean authenticated = (Boolean) session.getAttribute("authenticated");
+	@PutMapping("/bulk-update-role")
+	public ResponseEntity<?> bulkUpdateRole(@RequestBody Map<String, Object> request) {
+	    SessionPrincipal sessionUser = currentPrincipal.get();
 	    
-	    // Check authentication
-	    if (sessionUser == null || !Boolean.TRUE.equals(authenticated)) {
-	        return ResponseEntity.status(401).body(Map.of("error", "Not authenticated"));
+	    // Only admins can update user roles
+	    if (!sessionUser.isAdmin()) {
+	        return ResponseEntity.status(403).body(Map.of("error", "Only admins can update user roles"));
 	    }
 	    
+	    List<Long> ids = parseIds(request.get("ids"));
+	    if (ids == null) {
+	        return ResponseEntity.status(400).body(Map.of("error", "ids must be a non-empty list of at most " + MAX_BULK_USERS + " user ids"));
+	    }
+	    
+	    Object role = request.get("role");
+	    if (!(role instanceof String roleName) || !appUserValidator.isValidRole(roleName)) {
+	        return ResponseEntity.status(400).body(Map.of("error", "Role must be either USER or ADMIN"));
+	    }
+	    
+	    try {
+	        // One UPDATE ... WHERE id IN (...) instead of a findById + save per user
+	        int updatedCount = appUserRepository.updateRoleByIdIn(ids, roleName, LocalDateTime.now());
+	        
+	        // The statement bypassed entity callbacks, keep the derived views in sync by hand
+	        appUserTrigramIndex.updateRole(ids, roleName);
+	        appUserJsonCache.invalidateAll(ids);
+	        appUserProfileCache.invalidateAll(ids);
+	        
+	        return ResponseEntity.ok(Map.of(
+	            "success", true,
+	            "message", "User roles updated successfully",
+	            "requestedCount", ids.size(),
+	            "updatedCount", updatedCount
+	        ));
+	        
+	    } catch (Exception e) {
+	        return ResponseEntity.status(500).body(Map.of(
+	            "success", false,
+	            "error", "Failed to update user roles. Please try again."
+	        ));
+	    }
+	}
+	
+	@PostMapping("/bulk-delete")
+	public ResponseEntity<?> bulkDeleteUsers(@RequestBody Map<String, Object> request) {
+	    SessionPrincipal sessionUser = currentPrincipal.get();
+	    
+	    // Only admins can delete users, and they cannot delete themselves
+	    if (!sessionUser.isAdmin()) {
+	        return ResponseEntity.status(403).body(Map.of("error", "Access denied. Admin privileges required."));
+	    }
+	    
+	    List<Long> ids = parseIds(request.get("ids"));
+	    if (ids == null) {
+	        return ResponseEntity.status(400).body(Map.of("error", "ids must be a non-empty list of at most " + MAX_BULK_USERS + " user ids"));
+	    }
+	    
+	    if (ids.contains(sessionUser.id())) {
+	        return ResponseEntity.status(400).body(Map.of("error", "You cannot delete your own account"));
+	    }
+	    
+	    try {
+	        // One DELETE ... WHERE id IN (...) instead of a findById + delete per user
+	        int deletedCount = appUserRepository.deleteByIdIn(ids);
+	        
+	        // The statement bypassed entity callbacks, keep the derived views in sync by hand
+	        appUserTrigramIndex.removeAll(ids);
+	        appUserJsonCache.invalidateAll(ids);
+	        appUserProfileCache.invalidateAll(ids);
+	        
+	        return ResponseEntity.ok(Map.of(
+	            "success", true,
+	            "message", "Users deleted successfully",
+	            "requestedCount", ids.size(),
+	            "deletedCount", deletedCount
+	        ));
+	        
+	    } catch (Exception e) {
+	        return ResponseEntity.status(500).body(Map.of(
+	            "success", false,
+	            "error", "Failed to delete users. Please try again."
+	        ));
+	    }
+	}
+	
+	// Distinct ids from a JSON array of numbers, or null when the list is missing, malformed or too large
+	private static List<Long> parseIds(Object rawIds) {
+	    if (!(rawIds instanceof List<?> list) || list.isEmpty() || list.size() > MAX_BULK_USERS) {
+	        return null;
+	    }
+	    List<Long> ids = new ArrayList<>(list.size());
+	    for (Object rawId : list) {
+	        if (!(rawId instanceof Number number)) {
+	            return null;
+	        }
+	        ids.add(number.longValue());
+	    }
+	    return ids.stream().distinct().collect(Collectors.toList());
+	}
+	
+	@DeleteMapping("/delete/{id}")
+	public ResponseEntity<?> deleteUser(@PathVariable("id") Long id) {
+	    SessionPrincipal sessionUser = currentPrincipal.get();
+	    
 	    // Only admins can delete users, and they cannot delete themselves
-	    if (!"ADMIN".equals(sessionUser.getRole())) {
+	    if (!sessionUser.isAdmin()) {
 	        return ResponseEntity.status(403).body(Map.of("error", "Access denied. Admin privileges required."));
 	    }
 	    
-	    if (sessionUser.getId().equals(id)) {
+	    if (sessionUser.id().equals(id)) {
 	        return ResponseEntity.status(400).body(Map.of("error", "You cannot delete your own account"));
 	    }
 	    
@@ -445,6 +753,7 @@ public class AppUserController {
 	        
 	        // Delete the user
 	        appUserRepository.delete(userToDelete);
+	        appUserJsonCache.invalidate(id);
 	        
 	        return ResponseEntity.ok(Map.of(
 	            "success", true,
@@ -459,5 +768,38 @@ public class AppUserController {
 	        ));
 	    }
 	}
+	
+	// no-cache lets clients store the response but makes them revalidate it with If-None-Match
+	private static ResponseEntity<byte[]> jsonResponse(byte[] body, String etag) {
+	    return ResponseEntity.ok()
+	        .eTag(etag)
+	        .cacheControl(CacheControl.noCache())
+	        .contentType(MediaType.APPLICATION_JSON)
+	        .body(body);
+	}
+	
+	private static ResponseEntity<?> notModified(String etag) {
+	    return ResponseEntity.status(304)
+	        .eTag(etag)
+	        .cacheControl(CacheControl.noCache())
+	        .build();
+	}
+	
+	// If-None-Match uses weak comparison and may list several tags or "*"
+	private static boolean etagMatches(String ifNoneMatch, String etag) {
+	    if (ifNoneMatch == null || ifNoneMatch.trim().isEmpty()) {
+	        return false;
+	    }
+	    for (String candidate : ifNoneMatch.split(",")) {
+	        candidate = candidate.trim();
+	        if (candidate.startsWith("W/")) {
+	            candidate = candidate.substring(2);
+	        }
+	        if (candidate.equals("*") || candidate.equals(etag)) {
+	            return true;
+	        }
+	    }
+	    return false;
+	}
 
 }
@@ -0,0 +1,128 @@
+package com.user.permissions.appuser.export;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.user.permissions.appuser.AppUserSummary;
+import com.user.permissions.appuser.repository.AppUserRepository;
+
+/**
+ * Writes every user to an output stream in constant memory.
+ * Rows come from a forward-only cursor as unmanaged summaries,
+ * so the persistence context never grows with the table.
+ */
+@Component
+public class AppUserExporter {
+
+    private static final int FLUSH_EVERY = 500;
+    private static final String CSV_HEADER = "id,email,name,role,createdAt,updatedAt";
+
+    @Autowired
+    private AppUserRepository appUserRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Transactional(readOnly = true)
+    public void writeNdjson(OutputStream out) throws IOException {
+        try (Stream<AppUserSummary> users = appUserRepository.streamAllSummaries();
+             JsonGenerator generator = objectMapper.getFactory().createGenerator(out, JsonEncoding.UTF8)) {
+
+            // Newlines are written explicitly, and the servlet stream is closed by the container
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.setRootValueSeparator(null);
+
+            int written = 0;
+            Iterator<AppUserSummary> iterator = users.iterator();
+            while (iterator.hasNext()) {
+                AppUserSummary user = iterator.next();
+
+                generator.writeStartObject();
+                generator.writeNumberField("id", user.id());
+                generator.writeStringField("email", user.email());
+                generator.writeStringField("name", user.name());
+                generator.writeStringField("role", user.role());
+                generator.writeStringField("createdAt", user.createdAt() != null ? user.createdAt().toString() : null);
+                generator.writeStringField("updatedAt", user.updatedAt() != null ? user.updatedAt().toString() : null);
+                generator.writeEndObject();
+                generator.writeRaw('\n');
+
+                if (++written % FLUSH_EVERY == 0) {
+                    generator.flush();
+                }
+            }
+            generator.flush();
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public void writeCsv(OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        try (Stream<AppUserSummary> users = appUserRepository.streamAllSummaries()) {
+            writer.write(CSV_HEADER);
+            writer.write('\n');
+
+            int written = 0;
+            Iterator<AppUserSummary> iterator = users.iterator();
+            while (iterator.hasNext()) {
+                AppUserSummary user = iterator.next();
+
+                writer.write(user.id().toString());
+                writer.write(',');
+                writeCsvField(writer, user.email());
+                writer.write(',');
+                writeCsvField(writer, user.name());
+                writer.write(',');
+                writeCsvField(writer, user.role());
+                writer.write(',');
+                writeCsvField(writer, user.createdAt() != null ? user.createdAt().toString() : null);
+                writer.write(',');
+                writeCsvField(writer, user.updatedAt() != null ? user.updatedAt().toString() : null);
+                writer.write('\n');
+
+                if (++written % FLUSH_EVERY == 0) {
+                    writer.flush();
+                }
+            }
+        }
+        writer.flush();
+    }
+
+    // RFC 4180 quoting, only applied when the value needs it
+    private static void writeCsvField(Writer writer, String value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        boolean needsQuotes = false;
+        for (int i = 0; i < value.length() && !needsQuotes; i++) {
+            char c = value.charAt(i);
+            needsQuotes = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!needsQuotes) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') {
+                writer.write('"');
+            }
+            writer.write(c);
+        }
+        writer.write('"');
+    }
+}
@@ -2,14 +2,87 @@ package com.user.permissions.appuser.repository;
 
 
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
+import org.hibernate.jpa.HibernateHints;
+
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.user.permissions.appuser.AppUser;
+import com.user.permissions.appuser.AppUserSummary;
+import com.user.permissions.appuser.AppUserVersion;
+
+import jakarta.persistence.QueryHint;
 
 @Repository
-public interface AppUserRepository extends JpaRepository<AppUser, Long> {
+public interface AppUserRepository extends JpaRepository<AppUser, Long>, AppUserSearchRepository {
+    
+    // Read paths select summaries only, never the password hash
+    String SELECT_SUMMARY = "select new com.user.permissions.appuser.AppUserSummary("
+        + "u.id, u.email, u.name, u.role, u.createdAt, u.updatedAt) from AppUser u";
+    
+    String SELECT_VERSION = "select new com.user.permissions.appuser.AppUserVersion("
+        + "count(u), max(u.id), max(u.updatedAt)) from AppUser u";
+    
     Optional<AppUser> findByEmail(String email);
-}
\ No newline at end of file
+    
+    // Uniqueness check for a whole batch in one IN query
+    @Query("select u.email from AppUser u where u.email in ?1")
+    List<String> findExistingEmails(Collection<String> emails);
+    
+    // Aggregate versions back the ETags of the read endpoints
+    @Query(SELECT_VERSION)
+    AppUserVersion findVersion();
+    
+    @Query(SELECT_VERSION + " where u.id = ?1")
+    AppUserVersion findVersionById(Long id);
+    
+    @Query(SELECT_SUMMARY + " where u.id = ?1")
+    Optional<AppUserSummary> findSummaryById(Long id);
+    
+    @Query(SELECT_SUMMARY + " where u.id in ?1")
+    List<AppUserSummary> findSummariesByIdIn(Collection<Long> ids);
+    
+    @Query(SELECT_SUMMARY + " order by u.id")
+    List<AppUserSummary> findAllSummaries();
+    
+    // Set-based bulk writes. They bypass entity callbacks, so updatedAt is set explicitly
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update AppUser u set u.role = ?2, u.updatedAt = ?3 where u.id in ?1")
+    int updateRoleByIdIn(Collection<Long> ids, String role, LocalDateTime updatedAt);
+    
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("delete from AppUser u where u.id in ?1")
+    int deleteByIdIn(Collection<Long> ids);
+    
+    // Hash upgrades on login, only applied if the password wasn't changed in between
+    @Transactional
+    @Modifying
+    @Query("update AppUser u set u.password = ?3 where u.id = ?1 and u.password = ?2")
+    int updatePasswordIfUnchanged(Long id, String expectedHash, String newHash);
+    
+    // Keyset pagination: WHERE id > ? ORDER BY id LIMIT ?
+    @Query(SELECT_SUMMARY + " where u.id > ?1 order by u.id")
+    List<AppUserSummary> findSummariesAfter(Long id, Limit limit);
+    
+    // Forward-only cursor for exports, must be consumed inside a transaction and closed
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+        @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "false")
+    })
+    @Query(SELECT_SUMMARY + " order by u.id")
+    Stream<AppUserSummary> streamAllSummaries();
+}
@@ -0,0 +1,15 @@
+package com.user.permissions.appuser.repository;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+import com.user.permissions.appuser.AppUserSummary;
+
+/**
+ * Custom repository fragment for user search.
+ * Every criterion is a case-insensitive "contains" match, blank criteria are ignored.
+ */
+public interface AppUserSearchRepository {
+
+    Page<AppUserSummary> search(String email, String name, String role, Pageable pageable);
+}
@@ -0,0 +1,84 @@
+package com.user.permissions.appuser.repository;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.support.PageableExecutionUtils;
+
+import com.user.permissions.appuser.AppUser;
+import com.user.permissions.appuser.AppUserSummary;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+
+public class AppUserSearchRepositoryImpl implements AppUserSearchRepository {
+
+    private static final char LIKE_ESCAPE = '\\';
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Page<AppUserSummary> search(String email, String name, String role, Pageable pageable) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+
+        // Filtering, sorting and paging all happen in the database, only summary columns are selected
+        CriteriaQuery<AppUserSummary> query = cb.createQuery(AppUserSummary.class);
+        Root<AppUser> root = query.from(AppUser.class);
+        query.select(cb.construct(AppUserSummary.class,
+                 root.get("id"), root.get("email"), root.get("name"),
+                 root.get("role"), root.get("createdAt"), root.get("updatedAt")))
+             .where(buildPredicates(cb, root, email, name, role))
+             .orderBy(QueryUtils.toOrders(pageable.getSort(), root, cb));
+
+        List<AppUserSummary> content = entityManager.createQuery(query)
+            .setFirstResult((int) pageable.getOffset())
+            .setMaxResults(pageable.getPageSize())
+            .getResultList();
+
+        // Count query only runs when the total can't be derived from the page itself
+        return PageableExecutionUtils.getPage(content, pageable, () -> {
+            CriteriaQuery<Long> countQuery = cb.createQuery(Long.class);
+            Root<AppUser> countRoot = countQuery.from(AppUser.class);
+            countQuery.select(cb.count(countRoot))
+                      .where(buildPredicates(cb, countRoot, email, name, role));
+            return entityManager.createQuery(countQuery).getSingleResult();
+        });
+    }
+
+    private Predicate[] buildPredicates(CriteriaBuilder cb, Root<AppUser> root, String email, String name, String role) {
+        List<Predicate> predicates = new ArrayList<>();
+        addContains(predicates, cb, root, "email", email);
+        addContains(predicates, cb, root, "name", name);
+        addContains(predicates, cb, root, "role", role);
+        return predicates.toArray(new Predicate[0]);
+    }
+
+    private void addContains(List<Predicate> predicates, CriteriaBuilder cb, Root<AppUser> root, String field, String value) {
+        if (value == null || value.trim().isEmpty()) {
+            return;
+        }
+        String pattern = "%" + escapeLike(value.trim().toLowerCase()) + "%";
+        predicates.add(cb.like(cb.lower(root.<String>get(field)), pattern, LIKE_ESCAPE));
+    }
+
+    // User input must not be able to inject LIKE wildcards
+    private static String escapeLike(String value) {
+        StringBuilder escaped = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '%' || c == '_' || c == LIKE_ESCAPE) {
+                escaped.append(LIKE_ESCAPE);
+            }
+            escaped.append(c);
+        }
+        return escaped.toString();
+    }
+}
@@ -0,0 +1,5 @@
+package com.user.permissions.appuser.request;
+
+/** Body of POST /api/users/create and of each entry of POST /api/users/bulk. */
+public record CreateUserRequest(String email, String password, String name, String role) {
+}
@@ -0,0 +1,5 @@
+package com.user.permissions.appuser.request;
+
+/** Body of PUT /api/auth/update, the caller editing their own profile. */
+public record ProfileUpdateRequest(String name, String email, String password) {
+}
@@ -0,0 +1,5 @@
+package com.user.permissions.appuser.request;
+
+/** Body of PUT /api/users/update/{id}, blank fields are left unchanged. */
+public record UpdateUserRequest(String email, String password, String name, String role) {
+}
@@ -0,0 +1,62 @@
+package com.user.permissions.appuser.search;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.user.permissions.appuser.AppUser;
+import com.user.permissions.appuser.cache.AppUserProfileCache;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+
+/**
+ * Entity listener feeding user writes into {@link AppUserTrigramIndex} and evicting the
+ * {@link AppUserProfileCache} entry. Changes are applied after commit so rolled back writes never reach them.
+ */
+public class AppUserIndexListener {
+
+    // Resolved lazily, the listener is created while the EntityManagerFactory is still starting
+    @Autowired
+    private ObjectProvider<AppUserTrigramIndex> trigramIndex;
+
+    @Autowired
+    private ObjectProvider<AppUserProfileCache> profileCache;
+
+    @PostPersist
+    @PostUpdate
+    public void onSave(AppUser user) {
+        Long id = user.getId();
+        String email = user.getEmail();
+        String name = user.getName();
+        String role = user.getRole();
+        afterCommit(() -> {
+            trigramIndex.getObject().index(id, email, name, role);
+            profileCache.getObject().invalidate(id);
+        });
+    }
+
+    @PostRemove
+    public void onRemove(AppUser user) {
+        Long id = user.getId();
+        afterCommit(() -> {
+            trigramIndex.getObject().remove(id);
+            profileCache.getObject().invalidate(id);
+        });
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
@@ -0,0 +1,231 @@
+package com.user.permissions.appuser.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.user.permissions.appuser.AppUserSummary;
+import com.user.permissions.appuser.AppUserVersion;
+import com.user.permissions.appuser.repository.AppUserRepository;
+
+/**
+ * In-memory trigram index answering the "contains" semantics of the user search.
+ * Email and name are trigram-indexed; role is only kept for verification, since
+ * every candidate is checked against the stored values before it is returned.
+ * Local writes arrive through {@link AppUserIndexListener}. Writes made on other nodes are picked up
+ * by a periodic rebuild whenever the table version no longer matches the indexed one.
+ */
+@Component
+public class AppUserTrigramIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(AppUserTrigramIndex.class);
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final AtomicBoolean rebuilding = new AtomicBoolean();
+
+    private Snapshot current = new Snapshot();
+    // Non-null while a rebuild streams the table: changes made meanwhile are replayed onto the new snapshot
+    private List<Consumer<Snapshot>> changesDuringRebuild;
+    private AppUserVersion indexedVersion;
+    // Until the first build completes searches go to the database
+    private volatile boolean ready;
+
+    @Autowired
+    private AppUserRepository appUserRepository;
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        doRebuild();
+    }
+
+    @Scheduled(initialDelayString = "${users.search-index.refresh-interval-ms:60000}",
+               fixedDelayString = "${users.search-index.refresh-interval-ms:60000}")
+    @Transactional(readOnly = true)
+    public void refreshIfChanged() {
+        if (ready && !appUserRepository.findVersion().equals(indexedVersion)) {
+            doRebuild();
+        }
+    }
+
+    private void doRebuild() {
+        if (!rebuilding.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            lock.writeLock().lock();
+            try {
+                changesDuringRebuild = new ArrayList<>();
+            } finally {
+                lock.writeLock().unlock();
+            }
+
+            AppUserVersion version = appUserRepository.findVersion();
+            Snapshot rebuilt = new Snapshot();
+            try (Stream<AppUserSummary> stream = appUserRepository.streamAllSummaries()) {
+                stream.forEach(user -> rebuilt.put(user.id(), IndexedUser.of(user.email(), user.name(), user.role())));
+            }
+
+            lock.writeLock().lock();
+            try {
+                changesDuringRebuild.forEach(change -> change.accept(rebuilt));
+                current = rebuilt;
+                indexedVersion = version;
+                ready = true;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            log.info("Indexed {} users for search", rebuilt.users.size());
+        } finally {
+            lock.writeLock().lock();
+            try {
+                changesDuringRebuild = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            rebuilding.set(false);
+        }
+    }
+
+    public void index(Long id, String email, String name, String role) {
+        IndexedUser indexed = IndexedUser.of(email, name, role);
+        apply(snapshot -> snapshot.put(id, indexed));
+    }
+
+    // Bulk role updates skip entity callbacks, role isn't trigram-indexed so only the stored value changes
+    public void updateRole(Collection<Long> ids, String role) {
+        String normalizedRole = normalize(role);
+        List<Long> updatedIds = List.copyOf(ids);
+        apply(snapshot -> {
+            for (Long id : updatedIds) {
+                snapshot.updateRole(id, normalizedRole);
+            }
+        });
+    }
+
+    public void removeAll(Collection<Long> ids) {
+        List<Long> removedIds = List.copyOf(ids);
+        apply(snapshot -> {
+            for (Long id : removedIds) {
+                snapshot.remove(id);
+            }
+        });
+    }
+
+    public void remove(Long id) {
+        apply(snapshot -> snapshot.remove(id));
+    }
+
+    // Changes are idempotent, replaying one the rebuild already streamed leaves the same state
+    private void apply(Consumer<Snapshot> change) {
+        lock.writeLock().lock();
+        try {
+            change.accept(current);
+            if (changesDuringRebuild != null) {
+                changesDuringRebuild.add(change);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Ids of the users matching every non-blank criterion, in ascending order.
+     * Returns null when neither email nor name is long enough to use the index, or before the
+     * first build has completed, in which case the caller has to fall back to the database.
+     */
+    public long[] search(String email, String name, String role) {
+        String emailQuery = normalize(email);
+        String nameQuery = normalize(name);
+        String roleQuery = normalize(role);
+        boolean byEmail = emailQuery.length() >= TrigramIndex.GRAM_LENGTH;
+        boolean byName = nameQuery.length() >= TrigramIndex.GRAM_LENGTH;
+        if (!ready || (!byEmail && !byName)) {
+            return null;
+        }
+
+        lock.readLock().lock();
+        try {
+            TrigramIndex emailIndex = current.emailIndex;
+            TrigramIndex nameIndex = current.nameIndex;
+            Map<Long, IndexedUser> users = current.users;
+            long[] candidates = byEmail ? emailIndex.candidates(emailQuery) : nameIndex.candidates(nameQuery);
+            int count = candidates.length;
+            if (byEmail && byName) {
+                count = nameIndex.retainCandidates(candidates, count, nameQuery);
+            }
+
+            // Trigram hits are only candidates, confirm the real substring match
+            int matched = 0;
+            for (int i = 0; i < count; i++) {
+                IndexedUser user = users.get(candidates[i]);
+                if (user != null
+                        && user.email().contains(emailQuery)
+                        && user.name().contains(nameQuery)
+                        && user.role().contains(roleQuery)) {
+                    candidates[matched++] = candidates[i];
+                }
+            }
+            return Arrays.copyOf(candidates, matched);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static String normalize(String value) {
+        return value == null ? "" : value.trim().toLowerCase();
+    }
+
+    private static final class Snapshot {
+
+        final TrigramIndex emailIndex = new TrigramIndex();
+        final TrigramIndex nameIndex = new TrigramIndex();
+        final Map<Long, IndexedUser> users = new HashMap<>();
+
+        void put(Long id, IndexedUser indexed) {
+            IndexedUser previous = users.put(id, indexed);
+            if (previous != null) {
+                emailIndex.remove(id, previous.email());
+                nameIndex.remove(id, previous.name());
+            }
+            emailIndex.add(id, indexed.email());
+            nameIndex.add(id, indexed.name());
+        }
+
+        void updateRole(Long id, String role) {
+            users.computeIfPresent(id, (key, user) -> new IndexedUser(user.email(), user.name(), role));
+        }
+
+        void remove(Long id) {
+            IndexedUser previous = users.remove(id);
+            if (previous != null) {
+                emailIndex.remove(id, previous.email());
+                nameIndex.remove(id, previous.name());
+            }
+        }
+    }
+
+    private record IndexedUser(String email, String name, String role) {
+
+        static IndexedUser of(String email, String name, String role) {
+            return new IndexedUser(normalize(email), normalize(name), normalize(role));
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package com.user.permissions.appuser.search;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Inverted index from character trigrams to the ids of documents containing them.
+ * Text is expected to be normalized by the caller. Not thread safe.
+ */
+final class TrigramIndex {
+
+    static final int GRAM_LENGTH = 3;
+
+    private static final long[] NO_IDS = new long[0];
+
+    private final Map<Long, PostingList> postings = new HashMap<>();
+
+    void add(long id, String text) {
+        for (long gram : trigrams(text)) {
+            postings.computeIfAbsent(gram, key -> new PostingList()).add(id);
+        }
+    }
+
+    void remove(long id, String text) {
+        for (long gram : trigrams(text)) {
+            PostingList list = postings.get(gram);
+            if (list != null) {
+                list.remove(id);
+                if (list.isEmpty()) {
+                    postings.remove(gram);
+                }
+            }
+        }
+    }
+
+    /**
+     * Ids of documents containing every trigram of {@code query}, in ascending order.
+     * This is a superset of the documents containing {@code query} itself.
+     */
+    long[] candidates(String query) {
+        PostingList[] lists = postingsFor(query);
+        if (lists == null) {
+            return NO_IDS;
+        }
+        // Start from the rarest trigram so every later step scans as few ids as possible
+        long[] result = lists[0].toArray();
+        int count = result.length;
+        for (int i = 1; i < lists.length && count > 0; i++) {
+            count = lists[i].retainAll(result, count);
+        }
+        return count == result.length ? result : Arrays.copyOf(result, count);
+    }
+
+    /**
+     * Narrows the first {@code count} ids of {@code candidates} in place to those that could contain
+     * {@code query}. Returns the new count.
+     */
+    int retainCandidates(long[] candidates, int count, String query) {
+        PostingList[] lists = postingsFor(query);
+        if (lists == null) {
+            return 0;
+        }
+        for (int i = 0; i < lists.length && count > 0; i++) {
+            count = lists[i].retainAll(candidates, count);
+        }
+        return count;
+    }
+
+    // Posting lists for every trigram of the query sorted by size, or null when one is missing
+    private PostingList[] postingsFor(String query) {
+        long[] grams = trigrams(query);
+        if (grams.length == 0) {
+            return null;
+        }
+        PostingList[] lists = new PostingList[grams.length];
+        for (int i = 0; i < grams.length; i++) {
+            lists[i] = postings.get(grams[i]);
+            if (lists[i] == null) {
+                return null;
+            }
+        }
+        Arrays.sort(lists, Comparator.comparingInt(PostingList::size));
+        return lists;
+    }
+
+    // Distinct trigrams of the text, each packed into a long (three 16-bit chars)
+    static long[] trigrams(String text) {
+        int count = text.length() - GRAM_LENGTH + 1;
+        if (count <= 0) {
+            return NO_IDS;
+        }
+        long[] grams = new long[count];
+        for (int i = 0; i < count; i++) {
+            grams[i] = ((long) text.charAt(i) << 32) | ((long) text.charAt(i + 1) << 16) | text.charAt(i + 2);
+        }
+        Arrays.sort(grams);
+        int distinct = 1;
+        for (int i = 1; i < count; i++) {
+            if (grams[i] != grams[distinct - 1]) {
+                grams[distinct++] = grams[i];
+            }
+        }
+        return distinct == count ? grams : Arrays.copyOf(grams, distinct);
+    }
+}
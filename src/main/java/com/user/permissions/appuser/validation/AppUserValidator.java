@@ -0,0 +1,105 @@
+package com.user.permissions.appuser.validation;
+
+import java.util.regex.Pattern;
+
+import org.springframework.stereotype.Component;
+
+import com.user.permissions.appuser.request.CreateUserRequest;
+import com.user.permissions.appuser.request.ProfileUpdateRequest;
+import com.user.permissions.appuser.request.UpdateUserRequest;
+
+/**
+ * Validation rules for user payloads, shared by the user and auth endpoints.
+ * Patterns are compiled once and every field is checked in a single pass; valid payloads allocate nothing.
+ */
+@Component
+public class AppUserValidator {
+
+    private static final Pattern EMAIL = Pattern.compile("^[a-zA-Z0-9._%+-]+@[a-zA-Z0-9.-]+\\.[a-zA-Z]{2,}$");
+    private static final int MIN_PASSWORD_LENGTH = 6;
+
+    /** Rules of /create and /bulk, reported in the order email, password, name, role. */
+    public ValidationErrors validateNewUser(CreateUserRequest request) {
+        if (request == null) {
+            return ValidationErrors.add(ValidationErrors.NONE, "email", "Email is required");
+        }
+        ValidationErrors errors = ValidationErrors.NONE;
+        if (isBlank(request.email())) {
+            errors = ValidationErrors.add(errors, "email", "Email is required");
+        }
+        if (isBlank(request.password())) {
+            errors = ValidationErrors.add(errors, "password", "Password is required");
+        }
+        if (isBlank(request.name())) {
+            errors = ValidationErrors.add(errors, "name", "Name is required");
+        }
+        if (isBlank(request.role())) {
+            errors = ValidationErrors.add(errors, "role", "Role is required");
+        } else if (!isValidRole(request.role())) {
+            errors = ValidationErrors.add(errors, "role", "Role must be either USER or ADMIN");
+        }
+        return errors;
+    }
+
+    /** Rules of PUT /api/users/update/{id}: blank fields are left unchanged, at least one must be supplied. */
+    public ValidationErrors validateUserUpdate(UpdateUserRequest request) {
+        if (request == null || (isBlank(request.email()) && isBlank(request.password())
+                && isBlank(request.name()) && isBlank(request.role()))) {
+            return ValidationErrors.add(ValidationErrors.NONE, "request", "No valid fields provided for update");
+        }
+        ValidationErrors errors = ValidationErrors.NONE;
+        if (!isBlank(request.role()) && !isValidRole(request.role())) {
+            errors = ValidationErrors.add(errors, "role", "Role must be either USER or ADMIN");
+        }
+        return errors;
+    }
+
+    /** Rules of PUT /api/auth/update, every field is required. */
+    public ValidationErrors validateProfile(ProfileUpdateRequest request) {
+        return validateProfile(request, false);
+    }
+
+    /** Rules of PATCH /api/auth/update, only the supplied fields are checked. */
+    public ValidationErrors validateProfilePatch(ProfileUpdateRequest request) {
+        return validateProfile(request, true);
+    }
+
+    private ValidationErrors validateProfile(ProfileUpdateRequest request, boolean partial) {
+        ValidationErrors errors = ValidationErrors.NONE;
+        String name = request != null ? request.name() : null;
+        String email = request != null ? request.email() : null;
+        String password = request != null ? request.password() : null;
+
+        if (isBlank(name) && !(partial && name == null)) {
+            errors = ValidationErrors.add(errors, "name", "Name is required and cannot be empty");
+        }
+        if (isBlank(email)) {
+            if (!(partial && email == null)) {
+                errors = ValidationErrors.add(errors, "email", "Email is required and cannot be empty");
+            }
+        } else if (!isValidEmail(email)) {
+            errors = ValidationErrors.add(errors, "email", "Please provide a valid email address");
+        }
+        if (isBlank(password)) {
+            if (!(partial && password == null)) {
+                errors = ValidationErrors.add(errors, "password", "Password is required and cannot be empty");
+            }
+        } else if (password.trim().length() < MIN_PASSWORD_LENGTH) {
+            errors = ValidationErrors.add(errors, "password",
+                "Password must be at least " + MIN_PASSWORD_LENGTH + " characters long");
+        }
+        return errors;
+    }
+
+    public boolean isValidEmail(String email) {
+        return !isBlank(email) && EMAIL.matcher(email.trim()).matches();
+    }
+
+    public boolean isValidRole(String role) {
+        return "USER".equals(role) || "ADMIN".equals(role);
+    }
+
+    public static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+}
@@ -0,0 +1,38 @@
+package com.user.permissions.appuser.validation;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Field errors of one payload, in the order the fields were checked.
+ * Valid payloads share {@link #NONE}, the map only exists once something failed.
+ */
+public final class ValidationErrors {
+
+    public static final ValidationErrors NONE = new ValidationErrors(Map.of());
+
+    private final Map<String, String> errors;
+
+    private ValidationErrors(Map<String, String> errors) {
+        this.errors = errors;
+    }
+
+    static ValidationErrors add(ValidationErrors current, String field, String message) {
+        ValidationErrors errors = current == NONE ? new ValidationErrors(new LinkedHashMap<>(4)) : current;
+        errors.errors.putIfAbsent(field, message);
+        return errors;
+    }
+
+    public boolean isEmpty() {
+        return errors.isEmpty();
+    }
+
+    /** Message of the first failed field, for endpoints that report one error at a time. */
+    public String first() {
+        return errors.isEmpty() ? null : errors.values().iterator().next();
+    }
+
+    public Map<String, String> asMap() {
+        return errors;
+    }
+}
@@ -5,10 +5,15 @@ import java.util.Map;
 import java.util.Optional;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.session.SessionInformation;
+import org.springframework.security.core.session.SessionRegistry;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.session.FindByIndexNameSessionRepository;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
@@ -16,8 +21,22 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.user.permissions.appuser.AppUser;
+import com.user.permissions.appuser.AppUserSummary;
+import com.user.permissions.appuser.cache.AppUserJsonCache;
+import com.user.permissions.appuser.cache.AppUserProfileCache;
+import com.user.permissions.appuser.request.ProfileUpdateRequest;
+import com.user.permissions.appuser.validation.AppUserValidator;
+import com.user.permissions.appuser.validation.ValidationErrors;
+import com.user.permissions.auth.password.PasswordRehasher;
+import com.user.permissions.auth.password.PasswordVerificationBusyException;
+import com.user.permissions.auth.password.PasswordVerifier;
+import com.user.permissions.auth.session.SessionPrincipal;
+import com.user.permissions.auth.session.CurrentPrincipal;
+import com.user.permissions.auth.throttle.LoginThrottle;
+import com.user.permissions.auth.token.AuthTokenService;
 import com.user.permissions.appuser.repository.AppUserRepository;
 
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpSession;
 
 @RestController
@@ -30,24 +49,96 @@ public class AuthController {
 
     @Autowired
     private PasswordEncoder passwordEncoder;
+    
+    @Autowired
+    private AppUserJsonCache appUserJsonCache;
+    
+    @Autowired
+    private AppUserProfileCache appUserProfileCache;
+    
+    @Autowired
+    private PasswordVerifier passwordVerifier;
+    
+    @Autowired
+    private PasswordRehasher passwordRehasher;
+    
+    @Autowired
+    private LoginThrottle loginThrottle;
+    
+    @Autowired
+    private AuthTokenService authTokenService;
+    
+    @Autowired
+    private SessionRegistry sessionRegistry;
+    
+    @Autowired
+    private CurrentPrincipal currentPrincipal;
+    
+    @Autowired
+    private AppUserValidator appUserValidator;
 
     @PostMapping("/login")
-    public ResponseEntity<?> login(@RequestBody Map<String, String> credentials, HttpSession session) {
+    public ResponseEntity<?> login(@RequestBody Map<String, String> credentials, HttpServletRequest request) {
         String email = credentials.get("email");
         String password = credentials.get("password");
+        // Client address as resolved from X-Forwarded-For by the trusted proxies (server.forward-headers-strategy)
+        String clientIp = request.getRemoteAddr();
+        
+        // Throttled attempts are turned away before any lookup or bcrypt work
+        long retryAfter = loginThrottle.retryAfterSeconds(email, clientIp);
+        if (retryAfter > 0) {
+            return ResponseEntity.status(429)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfter))
+                .body(Map.of(
+                    "success", false,
+                    "error", "Too many failed login attempts. Please try again later."
+                ));
+        }
 
         Optional<AppUser> userOpt = userRepository.findByEmail(email);
         
-        if (userOpt.isPresent() && passwordEncoder.matches(password, userOpt.get().getPassword())) {
+        // Bcrypt runs on the bounded verification pool, a saturated pool fails fast with 503
+        boolean passwordMatches;
+        try {
+            passwordMatches = userOpt.isPresent() && passwordVerifier.matches(password, userOpt.get().getPassword());
+        } catch (PasswordVerificationBusyException e) {
+            return ResponseEntity.status(503)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                .body(Map.of(
+                    "success", false,
+                    "error", "Too many login attempts in progress. Please try again shortly."
+                ));
+        }
+        
+        if (passwordMatches) {
         	AppUser user = userOpt.get();
-            
-            // Store user in session
-            session.setAttribute("user", user);
-            session.setAttribute("authenticated", true);
+        	
+        	// Hashes made with an older work factor are upgraded in the background
+        	passwordRehasher.rehashIfNeeded(user.getId(), password, user.getPassword());
             
             // Return user data (without password)
             Map<String, Object> response = new HashMap<>();
             response.put("success", true);
+            
+            if (authTokenService.isEnabled()) {
+                // Stateless mode, the signed token replaces the session
+                response.put("token", authTokenService.issue(SessionPrincipal.of(user)));
+                response.put("expiresIn", authTokenService.getTtlSeconds());
+            } else {
+                // Store only the principal in session, the profile is read through the cache
+                HttpSession session = request.getSession();
+                String principalName = user.getId().toString();
+                session.setAttribute("user", SessionPrincipal.of(user));
+                session.setAttribute("authenticated", true);
+                session.setAttribute(FindByIndexNameSessionRepository.PRINCIPAL_NAME_INDEX_NAME, principalName);
+                
+                // One session per user, older ones are expired through the shared registry whatever node holds them
+                for (SessionInformation other : sessionRegistry.getAllSessions(principalName, false)) {
+                    if (!other.getSessionId().equals(session.getId())) {
+                        other.expireNow();
+                    }
+                }
+            }
             response.put("user", Map.of(
                 "id", user.getId(),
                 "email", user.getEmail(),
@@ -58,6 +149,7 @@ public class AuthController {
             return ResponseEntity.ok(response);
         }
         
+        loginThrottle.recordFailure(email, clientIp);
         return ResponseEntity.badRequest().body(Map.of(
             "success", false,
             "error", "Invalid email or password"
@@ -65,24 +157,34 @@ public class AuthController {
     }
 
     @PostMapping("/logout")
-    public ResponseEntity<?> logout(HttpSession session) {
-        session.invalidate();
+    public ResponseEntity<?> logout(HttpServletRequest request) {
+        // Tokens simply expire, only sessions have something to drop
+        HttpSession session = request.getSession(false);
+        if (session != null) {
+            session.invalidate();
+        }
         return ResponseEntity.ok(Map.of("success", true));
     }
 
     @GetMapping("/me")
-    public ResponseEntity<?> getCurrentUser(HttpSession session) {
-    	AppUser user = (AppUser) session.getAttribute("user");
-        Boolean authenticated = (Boolean) session.getAttribute("authenticated");
+    public ResponseEntity<?> getCurrentUser() {
+    	SessionPrincipal principal = currentPrincipal.get();
+        
+        Optional<AppUserSummary> profile = principal != null
+            ? appUserProfileCache.get(principal.id())
+            : Optional.empty();
         
-        if (user != null && Boolean.TRUE.equals(authenticated)) {
+        if (profile.isPresent()) {
+            // PrincipalFilter already refreshed the principal if the email or role changed since login
+            AppUserSummary user = profile.get();
+            
             return ResponseEntity.ok(Map.of(
                 "authenticated", true,
                 "user", Map.of(
-                    "id", user.getId(),
-                    "email", user.getEmail(),
-                    "name", user.getName(),
-                    "role", user.getRole()
+                    "id", user.id(),
+                    "email", user.email(),
+                    "name", user.name(),
+                    "role", user.role()
                 )
             ));
         }
@@ -91,45 +193,38 @@ public class AuthController {
     }
 
     @PutMapping("/update")
-    public ResponseEntity<?> updateUser(@RequestBody Map<String, String> request, HttpSession session) {
-        AppUser sessionUser = (AppUser) session.getAttribute("user");
-        Boolean authenticated = (Boolean) session.getAttribute("authenticated");
-        
-        // Check authentication
-        if (sessionUser == null || !Boolean.TRUE.equals(authenticated)) {
-            return ResponseEntity.status(401).body(Map.of("error", "Not authenticated"));
-        }
-        
-        String newName = request.get("name");
-        String newEmail = request.get("email");
-        String newPassword = request.get("password");
-        
-        // Validation
-        Map<String, String> errors = new HashMap<>();
-        
-        // Validate name
-        if (newName == null || newName.trim().isEmpty()) {
-            errors.put("name", "Name is required and cannot be empty");
+    public ResponseEntity<?> updateUser(@RequestBody ProfileUpdateRequest request, HttpServletRequest httpRequest) {
+        return updateProfile(request, appUserValidator.validateProfile(request), httpRequest);
+    }
+
+    // Partial update: only the supplied fields are written, bcrypt only runs when a new password is sent
+    @PatchMapping("/update")
+    public ResponseEntity<?> patchUser(@RequestBody ProfileUpdateRequest request, HttpServletRequest httpRequest) {
+        if (request.name() == null && request.email() == null && request.password() == null) {
+            return ResponseEntity.badRequest().body(Map.of(
+                "success", false,
+                "error", "No fields provided for update"
+            ));
         }
+        return updateProfile(request, appUserValidator.validateProfilePatch(request), httpRequest);
+    }
+
+    private ResponseEntity<?> updateProfile(ProfileUpdateRequest request, ValidationErrors validationErrors,
+                                            HttpServletRequest httpRequest) {
+        // PrincipalFilter already answered anonymous callers with 401
+        SessionPrincipal sessionUser = currentPrincipal.get();
         
-        // Validate email
-        if (newEmail == null || newEmail.trim().isEmpty()) {
-            errors.put("email", "Email is required and cannot be empty");
-        } else if (!isValidEmail(newEmail.trim())) {
-            errors.put("email", "Please provide a valid email address");
-        }
+        String newName = request.name();
+        String newEmail = request.email();
+        String newPassword = request.password();
         
-        // Validate password
-        if (newPassword == null || newPassword.trim().isEmpty()) {
-            errors.put("password", "Password is required and cannot be empty");
-        } else if (newPassword.trim().length() < 6) {
-            errors.put("password", "Password must be at least 6 characters long");
-        }
+        // Every field was validated in one pass
+        Map<String, String> errors = new HashMap<>(validationErrors.asMap());
         
         // Check if email already exists (exclude current user)
-        if (newEmail != null && !newEmail.trim().isEmpty() && isValidEmail(newEmail.trim())) {
+        if (appUserValidator.isValidEmail(newEmail)) {
             Optional<AppUser> existingUser = userRepository.findByEmail(newEmail.trim().toLowerCase());
-            if (existingUser.isPresent() && !existingUser.get().getId().equals(sessionUser.getId())) {
+            if (existingUser.isPresent() && !existingUser.get().getId().equals(sessionUser.id())) {
                 errors.put("email", "Email already exists. Please choose a different email.");
             }
         }
@@ -143,34 +238,47 @@ public class AuthController {
         }
         
         // Find and update user in database
-        Optional<AppUser> userOpt = userRepository.findById(sessionUser.getId());
+        Optional<AppUser> userOpt = userRepository.findById(sessionUser.id());
         if (userOpt.isPresent()) {
             AppUser user = userOpt.get();
             
-            // Update fields
-            user.setName(newName.trim());
-            user.setEmail(newEmail.trim().toLowerCase());
-            user.setPassword(passwordEncoder.encode(newPassword.trim()));
+            // Update the supplied fields, unchanged columns are left out of the UPDATE
+            if (newName != null) {
+                user.setName(newName.trim());
+            }
+            if (newEmail != null) {
+                user.setEmail(newEmail.trim().toLowerCase());
+            }
+            if (newPassword != null) {
+                user.setPassword(passwordEncoder.encode(newPassword.trim()));
+            }
             
             // Save to database
             try {
-                userRepository.save(user);
-                
-                // Update session with new user data
-                session.setAttribute("user", user);
+                AppUser saved = userRepository.save(user);
+                appUserJsonCache.invalidate(saved.getId());
                 
                 // Return success response (without password)
-                return ResponseEntity.ok(Map.of(
-                    "success", true,
-                    "message", "User updated successfully",
-                    "user", Map.of(
-                        "id", user.getId(),
-                        "email", user.getEmail(),
-                        "name", user.getName(),
-                        "role", user.getRole()
-                    )
+                Map<String, Object> response = new HashMap<>();
+                response.put("success", true);
+                response.put("message", "User updated successfully");
+                response.put("user", Map.of(
+                    "id", user.getId(),
+                    "email", user.getEmail(),
+                    "name", user.getName(),
+                    "role", user.getRole()
                 ));
                 
+                // Update the session, or reissue the token, with the new email and version
+                HttpSession session = httpRequest.getSession(false);
+                if (session != null) {
+                    session.setAttribute("user", SessionPrincipal.of(saved));
+                } else {
+                    response.put("token", authTokenService.issue(SessionPrincipal.of(saved)));
+                }
+                
+                return ResponseEntity.ok(response);
+                
             } catch (Exception e) {
                 // Handle database errors (like unique constraint violations)
                 return ResponseEntity.status(500).body(Map.of(
@@ -185,15 +293,4 @@ public class AuthController {
             "error", "User not found"
         ));
     }
-
-    // Helper method for email validation
-    private boolean isValidEmail(String email) {
-        if (email == null || email.trim().isEmpty()) {
-            return false;
-        }
-        
-        // Simple email validation regex
-        String emailRegex = "^[a-zA-Z0-9._%+-]+@[a-zA-Z0-9.-]+\\.[a-zA-Z]{2,}$";
-        return email.matches(emailRegex);
-    }
-}
\ No newline at end of file
+}
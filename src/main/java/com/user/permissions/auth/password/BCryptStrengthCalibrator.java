@@ -0,0 +1,69 @@
+package com.user.permissions.auth.password;
+
+import java.util.Arrays;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.stereotype.Component;
+
+/**
+ * Picks the bcrypt work factor for this host at startup.
+ * Hashing is timed at the minimum strength and extrapolated, each extra round doubles the cost,
+ * so login latency stays near the target whatever instance type we run on.
+ * The median of several warmed-up runs is used, a single sample is too easily skewed by JIT or a noisy neighbour.
+ */
+@Component
+public class BCryptStrengthCalibrator {
+
+    private static final Logger log = LoggerFactory.getLogger(BCryptStrengthCalibrator.class);
+
+    private static final String SAMPLE_PASSWORD = "calibration-sample-password";
+    private static final int WARMUP_RUNS = 3;
+    private static final int MEASURED_RUNS = 5;
+
+    @Value("${auth.bcrypt.strength:0}")
+    private int fixedStrength;
+
+    @Value("${auth.bcrypt.target-ms:250}")
+    private long targetMs;
+
+    @Value("${auth.bcrypt.min-strength:10}")
+    private int minStrength;
+
+    @Value("${auth.bcrypt.max-strength:14}")
+    private int maxStrength;
+
+    public int calibrate() {
+        if (fixedStrength > 0) {
+            log.info("Using configured bcrypt strength {}", fixedStrength);
+            return fixedStrength;
+        }
+
+        BCryptPasswordEncoder probe = new BCryptPasswordEncoder(minStrength);
+        for (int i = 0; i < WARMUP_RUNS; i++) {
+            probe.encode(SAMPLE_PASSWORD); // The first runs pay for class loading and JIT
+        }
+
+        long[] samplesMs = new long[MEASURED_RUNS];
+        for (int i = 0; i < MEASURED_RUNS; i++) {
+            long start = System.nanoTime();
+            probe.encode(SAMPLE_PASSWORD);
+            samplesMs[i] = Math.max(1, (System.nanoTime() - start) / 1_000_000);
+        }
+        Arrays.sort(samplesMs);
+        long measuredMs = samplesMs[MEASURED_RUNS / 2];
+
+        int strength = minStrength;
+        long estimatedMs = measuredMs;
+        while (strength < maxStrength && estimatedMs * 2 <= targetMs) {
+            strength++;
+            estimatedMs *= 2;
+        }
+
+        log.info("Bcrypt strength {} took {}ms (median of {} runs), using strength {} (~{}ms, target {}ms)",
+            minStrength, measuredMs, MEASURED_RUNS, strength, estimatedMs, targetMs);
+        return strength;
+    }
+}
@@ -0,0 +1,96 @@
+package com.user.permissions.auth.password;
+
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import com.user.permissions.appuser.repository.AppUserRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Upgrades hashes created with an older work factor after a successful login,
+ * the only moment the plain password is available. Runs off the request thread,
+ * on a single thread with a small queue: an upgrade is best effort, so when the queue
+ * is full it is dropped and the next login tries again.
+ */
+@Component
+public class PasswordRehasher {
+
+    private static final Logger log = LoggerFactory.getLogger(PasswordRehasher.class);
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private AppUserRepository appUserRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${auth.password-rehash.queue-capacity:16}")
+    private int queueCapacity;
+
+    private ThreadPoolExecutor executor;
+    // Users with an upgrade queued or running, a burst of logins for one user hashes once
+    private final Set<Long> pending = ConcurrentHashMap.newKeySet();
+    private Counter rehashedCounter;
+    private Counter skippedCounter;
+
+    @PostConstruct
+    void init() {
+        executor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(queueCapacity),
+            Thread.ofPlatform().name("password-rehash-", 0).daemon(true).factory(),
+            new ThreadPoolExecutor.AbortPolicy());
+
+        rehashedCounter = Counter.builder("auth.password.rehashed")
+            .description("Password hashes upgraded to the current work factor on login")
+            .register(meterRegistry);
+        skippedCounter = Counter.builder("auth.password.rehash.skipped")
+            .description("Password hash upgrades dropped because the rehash queue was full")
+            .register(meterRegistry);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    public void rehashIfNeeded(Long userId, String rawPassword, String currentHash) {
+        if (!passwordEncoder.upgradeEncoding(currentHash) || !pending.add(userId)) {
+            return;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    String newHash = passwordEncoder.encode(rawPassword);
+                    // Conditional update, a password changed in the meantime must not be overwritten
+                    if (appUserRepository.updatePasswordIfUnchanged(userId, currentHash, newHash) == 1) {
+                        rehashedCounter.increment();
+                    }
+                } finally {
+                    pending.remove(userId);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // Discarded, the next login will try again
+            pending.remove(userId);
+            skippedCounter.increment();
+            log.debug("Skipping password rehash for user {}: queue full", userId);
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.user.permissions.auth.password;
+
+/**
+ * Thrown when the password verification pool can't take more work.
+ * Login answers it with 503 and a Retry-After header instead of queueing the request thread.
+ */
+public class PasswordVerificationBusyException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public PasswordVerificationBusyException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() { return retryAfterSeconds; }
+}
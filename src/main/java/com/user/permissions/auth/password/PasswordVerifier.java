@@ -0,0 +1,136 @@
+package com.user.permissions.auth.password;
+
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Runs login password checks on a dedicated, bounded pool.
+ * Bcrypt is CPU bound: capping the threads keeps a login storm from starving every other endpoint,
+ * and a full queue fails fast instead of piling up request threads.
+ */
+@Component
+public class PasswordVerifier {
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${auth.password-verification.threads:0}")
+    private int threads;
+
+    @Value("${auth.password-verification.queue-capacity:64}")
+    private int queueCapacity;
+
+    @Value("${auth.password-verification.timeout-ms:5000}")
+    private long timeoutMs;
+
+    @Value("${auth.password-verification.retry-after-seconds:2}")
+    private long retryAfterSeconds;
+
+    private ThreadPoolExecutor executor;
+    private Timer queueTimer;
+    private final Map<String, Timer> verificationTimers = new ConcurrentHashMap<>();
+    private Counter rejectedCounter;
+
+    @PostConstruct
+    void init() {
+        // Default to half the cores so bcrypt can never take the whole CPU away from other requests
+        int poolSize = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(queueCapacity),
+            Thread.ofPlatform().name("password-verify-", 0).daemon(true).factory(),
+            new ThreadPoolExecutor.AbortPolicy());
+
+        queueTimer = Timer.builder("auth.password.verification.queue")
+            .description("Time a login password check waits for a verification thread")
+            .register(meterRegistry);
+        rejectedCounter = Counter.builder("auth.password.verification.rejected")
+            .description("Login password checks rejected because the pool was saturated")
+            .register(meterRegistry);
+        Gauge.builder("auth.password.verification.queue.size", executor, e -> e.getQueue().size())
+            .register(meterRegistry);
+        Gauge.builder("auth.password.verification.active", executor, ThreadPoolExecutor::getActiveCount)
+            .register(meterRegistry);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    // Latency histogram per work factor, to see what each cost actually takes on this host
+    private Timer verificationTimer(String encodedPassword) {
+        return verificationTimers.computeIfAbsent(costOf(encodedPassword), cost ->
+            Timer.builder("auth.password.verification.duration")
+                .description("Time spent hashing and comparing a login password")
+                .tag("cost", cost)
+                .publishPercentileHistogram()
+                .register(meterRegistry));
+    }
+
+    // Work factor of a bcrypt hash such as $2a$10$...
+    private static String costOf(String encodedPassword) {
+        if (encodedPassword == null || encodedPassword.length() < 7 || encodedPassword.charAt(0) != '$') {
+            return "unknown";
+        }
+        return encodedPassword.substring(4, 6);
+    }
+
+    public boolean matches(String rawPassword, String encodedPassword) {
+        long enqueuedAt = System.nanoTime();
+        Future<Boolean> result;
+        try {
+            result = executor.submit(() -> {
+                long startedAt = System.nanoTime();
+                queueTimer.record(startedAt - enqueuedAt, TimeUnit.NANOSECONDS);
+                try {
+                    return passwordEncoder.matches(rawPassword, encodedPassword);
+                } finally {
+                    verificationTimer(encodedPassword).record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            rejectedCounter.increment();
+            throw new PasswordVerificationBusyException("Password verification queue is full", retryAfterSeconds);
+        }
+
+        try {
+            return result.get(timeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            result.cancel(true);
+            rejectedCounter.increment();
+            throw new PasswordVerificationBusyException("Password verification timed out", retryAfterSeconds);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            result.cancel(true);
+            throw new PasswordVerificationBusyException("Password verification interrupted", retryAfterSeconds);
+        } catch (ExecutionException e) {
+            // Same failures a direct passwordEncoder.matches call would raise
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.user.permissions.auth.session;
+
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.annotation.RequestScope;
+
+/**
+ * The caller of the current request, resolved once by {@link PrincipalFilter}.
+ * On protected endpoints it is always set, anonymous calls never reach the controller.
+ */
+@Component
+@RequestScope
+public class CurrentPrincipal {
+
+    private SessionPrincipal principal;
+
+    /** The authenticated caller, or null on public endpoints called anonymously. */
+    public SessionPrincipal get() {
+        return principal;
+    }
+
+    void set(SessionPrincipal principal) {
+        this.principal = principal;
+    }
+}
@@ -0,0 +1,297 @@
+package com.user.permissions.auth.session;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.core.serializer.support.DeserializingConverter;
+import org.springframework.core.serializer.support.SerializingConverter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.session.FindByIndexNameSessionRepository;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Session store shared by every node through the application's datasource.
+ * <ul>
+ * <li>Attribute changes are written at the end of the request, one row per touched attribute,
+ * so concurrent writers on different nodes don't overwrite each other's attributes.</li>
+ * <li>Requests that only refresh the last access time are queued and flushed in one JDBC batch.</li>
+ * <li>Hot sessions are served from a small local cache for {@code cacheTtl}, the window in which
+ * a change made on another node (logout, expiry) may not be seen yet.</li>
+ * </ul>
+ */
+public class JdbcSessionRepository implements FindByIndexNameSessionRepository<StoredSession> {
+
+    private static final String[] SCHEMA = {
+        "CREATE TABLE IF NOT EXISTS app_session (id VARCHAR(64) PRIMARY KEY, principal_name VARCHAR(255),"
+            + " creation_time BIGINT NOT NULL, last_access_time BIGINT NOT NULL,"
+            + " max_inactive_seconds INT NOT NULL, expiry_time BIGINT NOT NULL)",
+        "CREATE INDEX IF NOT EXISTS idx_app_session_principal ON app_session (principal_name)",
+        "CREATE INDEX IF NOT EXISTS idx_app_session_expiry ON app_session (expiry_time)",
+        "CREATE TABLE IF NOT EXISTS app_session_attributes (session_id VARCHAR(64) NOT NULL,"
+            + " attribute_name VARCHAR(200) NOT NULL, attribute_bytes BLOB NOT NULL,"
+            + " PRIMARY KEY (session_id, attribute_name),"
+            + " FOREIGN KEY (session_id) REFERENCES app_session (id) ON DELETE CASCADE)"
+    };
+
+    private static final String SELECT_SESSION =
+        "SELECT s.id, s.creation_time, s.last_access_time, s.max_inactive_seconds, a.attribute_name, a.attribute_bytes"
+            + " FROM app_session s LEFT JOIN app_session_attributes a ON a.session_id = s.id WHERE s.id = ?";
+    private static final String INSERT_SESSION =
+        "INSERT INTO app_session (id, principal_name, creation_time, last_access_time, max_inactive_seconds, expiry_time)"
+            + " VALUES (?, ?, ?, ?, ?, ?)";
+    private static final String UPDATE_SESSION =
+        "UPDATE app_session SET principal_name = ?, last_access_time = ?, max_inactive_seconds = ?, expiry_time = ?"
+            + " WHERE id = ?";
+    private static final String UPDATE_LAST_ACCESS =
+        "UPDATE app_session SET last_access_time = ?, expiry_time = ? WHERE id = ? AND last_access_time < ?";
+    private static final String UPDATE_ATTRIBUTE =
+        "UPDATE app_session_attributes SET attribute_bytes = ? WHERE session_id = ? AND attribute_name = ?";
+    private static final String INSERT_ATTRIBUTE =
+        "INSERT INTO app_session_attributes (session_id, attribute_name, attribute_bytes) VALUES (?, ?, ?)";
+    private static final String DELETE_ATTRIBUTE =
+        "DELETE FROM app_session_attributes WHERE session_id = ? AND attribute_name = ?";
+    private static final String DELETE_SESSION = "DELETE FROM app_session WHERE id = ?";
+    private static final String DELETE_EXPIRED = "DELETE FROM app_session WHERE expiry_time < ?";
+    private static final String SELECT_IDS_BY_PRINCIPAL =
+        "SELECT id FROM app_session WHERE principal_name = ? AND expiry_time >= ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration defaultMaxInactiveInterval;
+    private final long cacheTtlMillis;
+    private final int cacheMaxEntries;
+
+    private final SerializingConverter serializer = new SerializingConverter();
+    private final DeserializingConverter deserializer = new DeserializingConverter(getClass().getClassLoader());
+
+    private Map<String, CachedSession> cache;
+    private final Map<String, Instant> pendingAccess = new ConcurrentHashMap<>();
+
+    public JdbcSessionRepository(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate,
+                                 Duration defaultMaxInactiveInterval, Duration cacheTtl, int cacheMaxEntries) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.defaultMaxInactiveInterval = defaultMaxInactiveInterval;
+        this.cacheTtlMillis = cacheTtl.toMillis();
+        this.cacheMaxEntries = cacheMaxEntries;
+    }
+
+    @PostConstruct
+    void init() {
+        for (String statement : SCHEMA) {
+            jdbcTemplate.execute(statement);
+        }
+        cache = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedSession> eldest) {
+                return size() > cacheMaxEntries;
+            }
+        };
+    }
+
+    @Override
+    public StoredSession createSession() {
+        return new StoredSession(defaultMaxInactiveInterval);
+    }
+
+    @Override
+    public void save(StoredSession session) {
+        if (session.isNew() || session.isIdChanged()) {
+            transactionTemplate.executeWithoutResult(status -> {
+                if (session.isIdChanged()) {
+                    deleteById(session.getOriginalId());
+                }
+                insert(session);
+            });
+        } else if (session.isMetadataChanged() || !session.getChangedAttributes().isEmpty()) {
+            Boolean exists = transactionTemplate.execute(status -> update(session));
+            if (!Boolean.TRUE.equals(exists)) {
+                // Invalidated on another node meanwhile, don't bring it back
+                evict(session.getId());
+                return;
+            }
+        } else if (session.isLastAccessChanged()) {
+            pendingAccess.merge(session.getId(), session.getLastAccessedTime(),
+                (queued, latest) -> latest.isAfter(queued) ? latest : queued);
+        } else {
+            return;
+        }
+        session.markSaved();
+        synchronized (cache) {
+            // Keep the original load time, local writes don't make the entry any fresher for other nodes' changes
+            CachedSession cached = cache.get(session.getId());
+            long loadedAt = cached != null ? cached.loadedAt() : System.currentTimeMillis();
+            cache.put(session.getId(), new CachedSession(loadedAt, session.copy()));
+        }
+    }
+
+    @Override
+    public StoredSession findById(String id) {
+        StoredSession session = null;
+        synchronized (cache) {
+            CachedSession cached = cache.get(id);
+            if (cached != null && System.currentTimeMillis() - cached.loadedAt() < cacheTtlMillis) {
+                session = cached.session().copy();
+            }
+        }
+        if (session == null) {
+            session = load(id);
+            if (session == null) {
+                evict(id);
+                return null;
+            }
+            synchronized (cache) {
+                cache.put(id, new CachedSession(System.currentTimeMillis(), session.copy()));
+            }
+        }
+        if (session.isExpired()) {
+            deleteById(id);
+            return null;
+        }
+        return session;
+    }
+
+    @Override
+    public void deleteById(String id) {
+        evict(id);
+        jdbcTemplate.update(DELETE_SESSION, id);
+    }
+
+    @Override
+    public Map<String, StoredSession> findByIndexNameAndIndexValue(String indexName, String indexValue) {
+        if (!PRINCIPAL_NAME_INDEX_NAME.equals(indexName)) {
+            return Map.of();
+        }
+        // Read straight from the table, the registry needs to see sessions created on other nodes
+        List<String> ids = jdbcTemplate.queryForList(SELECT_IDS_BY_PRINCIPAL, String.class,
+            indexValue, System.currentTimeMillis());
+        Map<String, StoredSession> sessions = new HashMap<>();
+        for (String id : ids) {
+            StoredSession session = load(id);
+            if (session != null && !session.isExpired()) {
+                sessions.put(id, session);
+            }
+        }
+        return sessions;
+    }
+
+    /** Writes queued last access times in a single batch. */
+    @Scheduled(fixedDelayString = "${auth.session-store.flush-interval-ms:1000}")
+    public void flushLastAccessTimes() {
+        if (pendingAccess.isEmpty()) {
+            return;
+        }
+        List<Object[]> batch = new ArrayList<>();
+        for (String id : pendingAccess.keySet()) {
+            Instant lastAccess = pendingAccess.remove(id);
+            if (lastAccess == null) {
+                continue;
+            }
+            Duration maxInactive = maxInactiveOf(id);
+            long lastAccessMillis = lastAccess.toEpochMilli();
+            batch.add(new Object[] {
+                lastAccessMillis, lastAccess.plus(maxInactive).toEpochMilli(), id, lastAccessMillis
+            });
+        }
+        jdbcTemplate.batchUpdate(UPDATE_LAST_ACCESS, batch);
+    }
+
+    @Scheduled(fixedDelayString = "${auth.session-store.cleanup-interval-ms:60000}")
+    public void deleteExpiredSessions() {
+        jdbcTemplate.update(DELETE_EXPIRED, System.currentTimeMillis());
+    }
+
+    @PreDestroy
+    void shutdown() {
+        flushLastAccessTimes();
+    }
+
+    private StoredSession load(String id) {
+        StoredSession session = jdbcTemplate.query(SELECT_SESSION, rs -> {
+            StoredSession loaded = null;
+            while (rs.next()) {
+                if (loaded == null) {
+                    loaded = new StoredSession(rs.getString("id"),
+                        Instant.ofEpochMilli(rs.getLong("creation_time")),
+                        Instant.ofEpochMilli(rs.getLong("last_access_time")),
+                        Duration.ofSeconds(rs.getInt("max_inactive_seconds")),
+                        new HashMap<>());
+                }
+                String name = rs.getString("attribute_name");
+                if (name != null) {
+                    loaded.getAttributes().put(name, deserializer.convert(rs.getBytes("attribute_bytes")));
+                }
+            }
+            return loaded;
+        }, id);
+        if (session == null) {
+            return null;
+        }
+        // Access times this node hasn't flushed yet are newer than the table
+        Instant queued = pendingAccess.get(id);
+        if (queued != null && queued.isAfter(session.getLastAccessedTime())) {
+            session.setLastAccessedTime(queued);
+        }
+        session.markSaved();
+        return session;
+    }
+
+    private void insert(StoredSession session) {
+        jdbcTemplate.update(INSERT_SESSION, session.getId(), session.getPrincipalName(),
+            session.getCreationTime().toEpochMilli(), session.getLastAccessedTime().toEpochMilli(),
+            (int) session.getMaxInactiveInterval().toSeconds(), session.getExpiryTime().toEpochMilli());
+        List<Object[]> attributes = new ArrayList<>();
+        for (Map.Entry<String, Object> attribute : session.getAttributes().entrySet()) {
+            attributes.add(new Object[] {session.getId(), attribute.getKey(), serializer.convert(attribute.getValue())});
+        }
+        jdbcTemplate.batchUpdate(INSERT_ATTRIBUTE, attributes);
+    }
+
+    private boolean update(StoredSession session) {
+        int updated = jdbcTemplate.update(UPDATE_SESSION, session.getPrincipalName(),
+            session.getLastAccessedTime().toEpochMilli(), (int) session.getMaxInactiveInterval().toSeconds(),
+            session.getExpiryTime().toEpochMilli(), session.getId());
+        if (updated == 0) {
+            return false;
+        }
+        pendingAccess.remove(session.getId());
+        for (String name : session.getChangedAttributes()) {
+            Object value = session.getAttribute(name);
+            if (value == null) {
+                jdbcTemplate.update(DELETE_ATTRIBUTE, session.getId(), name);
+                continue;
+            }
+            byte[] bytes = serializer.convert(value);
+            if (jdbcTemplate.update(UPDATE_ATTRIBUTE, bytes, session.getId(), name) == 0) {
+                jdbcTemplate.update(INSERT_ATTRIBUTE, session.getId(), name, bytes);
+            }
+        }
+        return true;
+    }
+
+    private void evict(String id) {
+        pendingAccess.remove(id);
+        synchronized (cache) {
+            cache.remove(id);
+        }
+    }
+
+    private Duration maxInactiveOf(String id) {
+        synchronized (cache) {
+            CachedSession cached = cache.get(id);
+            return cached != null ? cached.session().getMaxInactiveInterval() : defaultMaxInactiveInterval;
+        }
+    }
+
+    private record CachedSession(long loadedAt, StoredSession session) {}
+}
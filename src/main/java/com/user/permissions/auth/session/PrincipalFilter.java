@@ -0,0 +1,109 @@
+package com.user.permissions.auth.session;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.http.MediaType;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.web.util.matcher.RequestMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import com.user.permissions.appuser.AppUserSummary;
+import com.user.permissions.appuser.cache.AppUserProfileCache;
+import com.user.permissions.auth.token.AuthTokenFilter;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpSession;
+
+/**
+ * Resolves the caller once per request, from verified token claims or the session, and publishes it
+ * as {@link CurrentPrincipal} and in the security context. Anonymous calls to protected endpoints
+ * are answered with 401 here, before any controller is dispatched.
+ * A session principal is checked against the user's current version: a changed email or role replaces it
+ * (and the session copy), a deleted user is treated as anonymous. Token principals are taken from their
+ * claims as is, without a lookup; the token's short lifetime bounds how long a change goes unseen.
+ */
+public class PrincipalFilter extends OncePerRequestFilter {
+
+    private final CurrentPrincipal currentPrincipal;
+    private final AppUserProfileCache profileCache;
+    private final RequestMatcher protectedRequests;
+    private final Timer tokenTimer;
+    private final Timer sessionTimer;
+    private final Timer anonymousTimer;
+    private final Timer rejectedTimer;
+
+    public PrincipalFilter(CurrentPrincipal currentPrincipal, AppUserProfileCache profileCache,
+                           RequestMatcher protectedRequests, MeterRegistry meterRegistry) {
+        this.currentPrincipal = currentPrincipal;
+        this.profileCache = profileCache;
+        this.protectedRequests = protectedRequests;
+        this.tokenTimer = timer(meterRegistry, "token");
+        this.sessionTimer = timer(meterRegistry, "session");
+        this.anonymousTimer = timer(meterRegistry, "anonymous");
+        this.rejectedTimer = timer(meterRegistry, "rejected");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        long start = System.nanoTime();
+        boolean fromToken = request.getAttribute(AuthTokenFilter.PRINCIPAL_ATTRIBUTE) != null;
+        SessionPrincipal principal = SessionPrincipals.current(request);
+        if (principal != null && !fromToken) {
+            principal = refresh(principal, request.getSession(false));
+        }
+
+        if (principal == null) {
+            if (protectedRequests.matches(request)) {
+                rejectedTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
+                response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+                response.getWriter().write("{\"error\":\"Not authenticated\"}");
+                return;
+            }
+            anonymousTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        currentPrincipal.set(principal);
+        SecurityContextHolder.getContext().setAuthentication(UsernamePasswordAuthenticationToken.authenticated(
+            principal, null, List.of(new SimpleGrantedAuthority("ROLE_" + principal.role()))));
+        (fromToken ? tokenTimer : sessionTimer).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        filterChain.doFilter(request, response);
+    }
+
+    // Authorization follows the user's current email and role, not the ones captured at login
+    private SessionPrincipal refresh(SessionPrincipal principal, HttpSession session) {
+        Optional<AppUserSummary> profile = profileCache.get(principal.id());
+        if (profile.isEmpty()) {
+            session.invalidate();
+            return null;
+        }
+        AppUserSummary user = profile.get();
+        long version = SessionPrincipal.versionOf(user.updatedAt());
+        if (principal.version() == version) {
+            return principal;
+        }
+        SessionPrincipal refreshed = new SessionPrincipal(user.id(), user.email(), user.role(), version);
+        session.setAttribute("user", refreshed);
+        return refreshed;
+    }
+
+    private static Timer timer(MeterRegistry meterRegistry, String source) {
+        return Timer.builder("auth.principal.resolution")
+            .description("Time spent resolving the caller of a request")
+            .tag("source", source)
+            .register(meterRegistry);
+    }
+}
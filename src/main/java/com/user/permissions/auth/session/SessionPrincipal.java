@@ -0,0 +1,30 @@
+package com.user.permissions.auth.session;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+import com.user.permissions.appuser.AppUser;
+
+/**
+ * What the session keeps about the logged in user: enough to authorize requests, nothing more.
+ * Profile fields are read through {@link com.user.permissions.appuser.cache.AppUserProfileCache}.
+ * The version is the user's updatedAt when the principal was issued, so stale sessions can be spotted.
+ */
+public record SessionPrincipal(Long id, String email, String role, long version) implements Serializable {
+
+    public static SessionPrincipal of(AppUser user) {
+        return new SessionPrincipal(user.getId(), user.getEmail(), user.getRole(), versionOf(user.getUpdatedAt()));
+    }
+
+    public static long versionOf(LocalDateTime updatedAt) {
+        if (updatedAt == null) {
+            return 0;
+        }
+        return updatedAt.toEpochSecond(ZoneOffset.UTC) * 1_000_000_000L + updatedAt.getNano();
+    }
+
+    public boolean isAdmin() {
+        return "ADMIN".equals(role);
+    }
+}
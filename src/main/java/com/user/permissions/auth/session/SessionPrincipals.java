@@ -0,0 +1,28 @@
+package com.user.permissions.auth.session;
+
+import com.user.permissions.auth.token.AuthTokenFilter;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpSession;
+
+/**
+ * Resolves the caller from verified token claims first, then from the session.
+ * Never creates a session, so stateless requests stay stateless.
+ */
+final class SessionPrincipals {
+
+    private SessionPrincipals() {
+    }
+
+    /** The authenticated caller, or null. */
+    static SessionPrincipal current(HttpServletRequest request) {
+        if (request.getAttribute(AuthTokenFilter.PRINCIPAL_ATTRIBUTE) instanceof SessionPrincipal principal) {
+            return principal;
+        }
+        HttpSession session = request.getSession(false);
+        if (session == null || !Boolean.TRUE.equals(session.getAttribute("authenticated"))) {
+            return null;
+        }
+        return (SessionPrincipal) session.getAttribute("user");
+    }
+}
@@ -0,0 +1,176 @@
+package com.user.permissions.auth.session;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import org.springframework.session.Session;
+
+/**
+ * Session handled by {@link JdbcSessionRepository}.
+ * Tracks what changed since it was loaded so saves only write the touched attributes,
+ * and a request that merely refreshed the access time costs no immediate write.
+ */
+public final class StoredSession implements Session {
+
+    private String id;
+    private String originalId;
+    private final Instant creationTime;
+    private Instant lastAccessedTime;
+    private Duration maxInactiveInterval;
+    private final Map<String, Object> attributes;
+
+    private boolean isNew;
+    private boolean metadataChanged;
+    private boolean lastAccessChanged;
+    private final Set<String> changedAttributes = new HashSet<>();
+
+    StoredSession(Duration maxInactiveInterval) {
+        this.id = UUID.randomUUID().toString();
+        this.originalId = id;
+        this.creationTime = Instant.now();
+        this.lastAccessedTime = creationTime;
+        this.maxInactiveInterval = maxInactiveInterval;
+        this.attributes = new HashMap<>();
+        this.isNew = true;
+    }
+
+    StoredSession(String id, Instant creationTime, Instant lastAccessedTime, Duration maxInactiveInterval,
+                  Map<String, Object> attributes) {
+        this.id = id;
+        this.originalId = id;
+        this.creationTime = creationTime;
+        this.lastAccessedTime = lastAccessedTime;
+        this.maxInactiveInterval = maxInactiveInterval;
+        this.attributes = attributes;
+    }
+
+    // Requests get their own copy, the cached instance is never mutated
+    StoredSession copy() {
+        return new StoredSession(id, creationTime, lastAccessedTime, maxInactiveInterval, new HashMap<>(attributes));
+    }
+
+    @Override
+    public String getId() {
+        return id;
+    }
+
+    @Override
+    public String changeSessionId() {
+        id = UUID.randomUUID().toString();
+        return id;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T getAttribute(String attributeName) {
+        return (T) attributes.get(attributeName);
+    }
+
+    @Override
+    public Set<String> getAttributeNames() {
+        return new HashSet<>(attributes.keySet());
+    }
+
+    @Override
+    public void setAttribute(String attributeName, Object attributeValue) {
+        if (attributeValue == null) {
+            removeAttribute(attributeName);
+            return;
+        }
+        attributes.put(attributeName, attributeValue);
+        changedAttributes.add(attributeName);
+    }
+
+    @Override
+    public void removeAttribute(String attributeName) {
+        if (attributes.remove(attributeName) != null) {
+            changedAttributes.add(attributeName);
+        }
+    }
+
+    @Override
+    public Instant getCreationTime() {
+        return creationTime;
+    }
+
+    @Override
+    public void setLastAccessedTime(Instant lastAccessedTime) {
+        this.lastAccessedTime = lastAccessedTime;
+        this.lastAccessChanged = true;
+    }
+
+    @Override
+    public Instant getLastAccessedTime() {
+        return lastAccessedTime;
+    }
+
+    @Override
+    public void setMaxInactiveInterval(Duration interval) {
+        this.maxInactiveInterval = interval;
+        this.metadataChanged = true;
+    }
+
+    @Override
+    public Duration getMaxInactiveInterval() {
+        return maxInactiveInterval;
+    }
+
+    @Override
+    public boolean isExpired() {
+        return isExpired(Instant.now());
+    }
+
+    boolean isExpired(Instant now) {
+        return !maxInactiveInterval.isNegative() && now.isAfter(getExpiryTime());
+    }
+
+    Instant getExpiryTime() {
+        return lastAccessedTime.plus(maxInactiveInterval);
+    }
+
+    String getPrincipalName() {
+        Object name = attributes.get(PRINCIPAL_NAME_INDEX_NAME);
+        return name instanceof String principalName ? principalName : null;
+    }
+
+    String getOriginalId() {
+        return originalId;
+    }
+
+    boolean isNew() {
+        return isNew;
+    }
+
+    boolean isIdChanged() {
+        return !id.equals(originalId);
+    }
+
+    boolean isMetadataChanged() {
+        return metadataChanged || changedAttributes.contains(PRINCIPAL_NAME_INDEX_NAME);
+    }
+
+    boolean isLastAccessChanged() {
+        return lastAccessChanged;
+    }
+
+    Set<String> getChangedAttributes() {
+        return changedAttributes;
+    }
+
+    Map<String, Object> getAttributes() {
+        return attributes;
+    }
+
+    void markSaved() {
+        originalId = id;
+        isNew = false;
+        metadataChanged = false;
+        lastAccessChanged = false;
+        changedAttributes.clear();
+    }
+}
@@ -0,0 +1,169 @@
+package com.user.permissions.auth.throttle;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Failed-login throttle checked before any password hashing.
+ * Keeps one token bucket per email and per client IP in fixed-size striped tables of packed longs,
+ * updated with CAS only, so memory is bounded whatever the number of distinct keys.
+ * Keys that hash to the same stripe share a bucket, which can only make the throttle stricter.
+ * Buckets only drain with time: a successful login does not clear them, since a stripe may hold
+ * failures of other accounts or clients that must not be forgiven along with it.
+ */
+@Component
+public class LoginThrottle {
+
+    // Buckets count in milli-tokens so the decay stays smooth
+    private static final long TOKEN = 1000;
+    private static final int TIME_BITS = 40;
+    private static final long TIME_MASK = (1L << TIME_BITS) - 1;
+    private static final long MAX_DEBT = (1L << (63 - TIME_BITS)) - 1;
+
+    @Value("${auth.login-throttle.slots:65536}")
+    private int slots;
+
+    @Value("${auth.login-throttle.email-capacity:5}")
+    private int emailCapacity;
+
+    @Value("${auth.login-throttle.ip-capacity:50}")
+    private int ipCapacity;
+
+    @Value("${auth.login-throttle.window-seconds:900}")
+    private long windowSeconds;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final long startNanos = System.nanoTime();
+    private final int seed = ThreadLocalRandom.current().nextInt();
+
+    private BucketTable emailBuckets;
+    private BucketTable ipBuckets;
+    private Counter emailRejections;
+    private Counter ipRejections;
+    private Counter failures;
+
+    @PostConstruct
+    void init() {
+        int size = Integer.highestOneBit(Math.max(slots, 16));
+        emailBuckets = new BucketTable(size, emailCapacity, windowSeconds);
+        ipBuckets = new BucketTable(size, ipCapacity, windowSeconds);
+
+        emailRejections = Counter.builder("auth.login.throttle.rejected").tag("key", "email")
+            .description("Login attempts rejected by the throttle before password verification")
+            .register(meterRegistry);
+        ipRejections = Counter.builder("auth.login.throttle.rejected").tag("key", "ip")
+            .description("Login attempts rejected by the throttle before password verification")
+            .register(meterRegistry);
+        failures = Counter.builder("auth.login.throttle.failures")
+            .description("Failed logins recorded by the throttle")
+            .register(meterRegistry);
+        Gauge.builder("auth.login.throttle.tracked", emailBuckets, table -> table.activeSlots(now()))
+            .tag("key", "email")
+            .register(meterRegistry);
+        Gauge.builder("auth.login.throttle.tracked", ipBuckets, table -> table.activeSlots(now()))
+            .tag("key", "ip")
+            .register(meterRegistry);
+    }
+
+    /** Seconds the client has to wait, or 0 when the attempt may go on to password verification. */
+    public long retryAfterSeconds(String email, String clientIp) {
+        long now = now();
+        long emailWait = emailBuckets.waitMillis(slot("e:" + normalize(email), emailBuckets), now);
+        long ipWait = ipBuckets.waitMillis(slot("i:" + clientIp, ipBuckets), now);
+        if (emailWait > 0) {
+            emailRejections.increment();
+        } else if (ipWait > 0) {
+            ipRejections.increment();
+        }
+        long waitMillis = Math.max(emailWait, ipWait);
+        return waitMillis == 0 ? 0 : Math.max(1, (waitMillis + 999) / 1000);
+    }
+
+    public void recordFailure(String email, String clientIp) {
+        long now = now();
+        emailBuckets.consume(slot("e:" + normalize(email), emailBuckets), now);
+        ipBuckets.consume(slot("i:" + clientIp, ipBuckets), now);
+        failures.increment();
+    }
+
+    private long now() {
+        return (System.nanoTime() - startNanos) / 1_000_000;
+    }
+
+    // Seeded per process so attackers can't aim at a known stripe
+    private int slot(String key, BucketTable table) {
+        int h = key.hashCode() ^ seed;
+        h ^= h >>> 16;
+        h *= 0x85ebca6b;
+        h ^= h >>> 13;
+        return h & table.mask;
+    }
+
+    private static String normalize(String email) {
+        return email == null ? "" : email.trim().toLowerCase();
+    }
+
+    /**
+     * Each slot packs the consumed tokens ("debt") in the high bits and the time of the last update
+     * in the low 40 bits. Debt drains linearly until the bucket is full again; 0 means untouched.
+     */
+    private static final class BucketTable {
+
+        private final AtomicLongArray states;
+        private final int mask;
+        private final long capacity;
+        private final double refillPerMilli;
+
+        BucketTable(int size, int capacityTokens, long windowSeconds) {
+            this.states = new AtomicLongArray(size);
+            this.mask = size - 1;
+            this.capacity = Math.min(Math.max(1, capacityTokens) * TOKEN, MAX_DEBT);
+            this.refillPerMilli = (double) capacity / (Math.max(1, windowSeconds) * 1000);
+        }
+
+        long waitMillis(int slot, long now) {
+            long excess = debtAt(states.get(slot), now) + TOKEN - capacity;
+            return excess <= 0 ? 0 : (long) Math.ceil(excess / refillPerMilli);
+        }
+
+        void consume(int slot, long now) {
+            while (true) {
+                long state = states.get(slot);
+                long debt = Math.min(debtAt(state, now) + TOKEN, capacity);
+                if (states.compareAndSet(slot, state, (debt << TIME_BITS) | (now & TIME_MASK))) {
+                    return;
+                }
+            }
+        }
+
+        int activeSlots(long now) {
+            int active = 0;
+            for (int i = 0; i < states.length(); i++) {
+                if (debtAt(states.get(i), now) > 0) {
+                    active++;
+                }
+            }
+            return active;
+        }
+
+        private long debtAt(long state, long now) {
+            if (state == 0) {
+                return 0;
+            }
+            long debt = state >>> TIME_BITS;
+            long elapsed = now - (state & TIME_MASK);
+            return Math.max(0, debt - (long) (elapsed * refillPerMilli));
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.user.permissions.auth.token;
+
+import java.io.IOException;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import com.user.permissions.auth.session.SessionPrincipal;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Verifies "Authorization: Bearer" tokens from their claims alone.
+ * The verified principal is left as a request attribute for
+ * {@link com.user.permissions.auth.session.PrincipalFilter}, the session is never touched.
+ */
+public class AuthTokenFilter extends OncePerRequestFilter {
+
+    public static final String PRINCIPAL_ATTRIBUTE = AuthTokenFilter.class.getName() + ".principal";
+
+    private static final String BEARER_PREFIX = "Bearer ";
+
+    private final AuthTokenService authTokenService;
+
+    public AuthTokenFilter(AuthTokenService authTokenService) {
+        this.authTokenService = authTokenService;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !authTokenService.isEnabled();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String header = request.getHeader(HttpHeaders.AUTHORIZATION);
+        if (header != null && header.startsWith(BEARER_PREFIX)) {
+            SessionPrincipal principal = authTokenService.verify(header.substring(BEARER_PREFIX.length()).trim());
+            if (principal != null) {
+                request.setAttribute(PRINCIPAL_ATTRIBUTE, principal);
+            }
+        }
+        filterChain.doFilter(request, response);
+    }
+}
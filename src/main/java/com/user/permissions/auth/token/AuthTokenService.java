@@ -0,0 +1,119 @@
+package com.user.permissions.auth.token;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Base64;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.user.permissions.auth.session.SessionPrincipal;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Issues and verifies the HMAC-SHA256 signed tokens of the stateless auth mode.
+ * A token is base64url("id:role:version:expiry:email") + "." + base64url(signature),
+ * so verifying one needs neither a session nor a database lookup.
+ * Token mode refuses to start without auth.token.secret: every instance has to accept the others' tokens.
+ */
+@Component
+public class AuthTokenService {
+
+    private static final Logger log = LoggerFactory.getLogger(AuthTokenService.class);
+
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    @Value("${auth.token.enabled:false}")
+    private boolean enabled;
+
+    @Value("${auth.token.secret:}")
+    private String secret;
+
+    @Value("${auth.token.ttl-seconds:3600}")
+    private long ttlSeconds;
+
+    private SecretKeySpec key;
+    private ThreadLocal<Mac> macs;
+
+    @PostConstruct
+    void init() {
+        byte[] keyBytes;
+        if (secret == null || secret.isBlank()) {
+            if (enabled) {
+                throw new IllegalStateException("auth.token.enabled requires auth.token.secret,"
+                    + " a base64 key shared by every instance");
+            }
+            // Token mode is off, nothing is ever issued with this key
+            keyBytes = new byte[32];
+            new SecureRandom().nextBytes(keyBytes);
+        } else {
+            keyBytes = Base64.getDecoder().decode(secret);
+        }
+        if (enabled) {
+            log.info("Stateless token authentication enabled, tokens valid for {}s", ttlSeconds);
+        }
+        key = new SecretKeySpec(keyBytes, ALGORITHM);
+        macs = ThreadLocal.withInitial(() -> {
+            try {
+                Mac mac = Mac.getInstance(ALGORITHM);
+                mac.init(key);
+                return mac;
+            } catch (GeneralSecurityException e) {
+                throw new IllegalStateException("HmacSHA256 is not available", e);
+            }
+        });
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public long getTtlSeconds() {
+        return ttlSeconds;
+    }
+
+    public String issue(SessionPrincipal principal) {
+        long expiresAt = System.currentTimeMillis() / 1000 + ttlSeconds;
+        String claims = principal.id() + ":" + principal.role() + ":" + principal.version() + ":" + expiresAt
+            + ":" + principal.email();
+        String payload = ENCODER.encodeToString(claims.getBytes(StandardCharsets.UTF_8));
+        return payload + "." + ENCODER.encodeToString(sign(payload));
+    }
+
+    /** The principal carried by a valid, unexpired token, or null. */
+    public SessionPrincipal verify(String token) {
+        int dot = token.indexOf('.');
+        if (dot <= 0 || dot == token.length() - 1) {
+            return null;
+        }
+        String payload = token.substring(0, dot);
+        try {
+            byte[] signature = DECODER.decode(token.substring(dot + 1));
+            if (!MessageDigest.isEqual(signature, sign(payload))) {
+                return null;
+            }
+            String[] claims = new String(DECODER.decode(payload), StandardCharsets.UTF_8).split(":", 5);
+            if (claims.length != 5 || Long.parseLong(claims[3]) <= System.currentTimeMillis() / 1000) {
+                return null;
+            }
+            return new SessionPrincipal(Long.valueOf(claims[0]), claims[4], claims[1], Long.parseLong(claims[2]));
+        } catch (IllegalArgumentException e) {
+            // Not base64 or not a number, same as a bad signature
+            return null;
+        }
+    }
+
+    private byte[] sign(String payload) {
+        return macs.get().doFinal(payload.getBytes(StandardCharsets.US_ASCII));
+    }
+}
@@ -0,0 +1,103 @@
+package com.user.permissions.config;
+
+import java.time.Duration;
+
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.client5.http.protocol.HttpClientContext;
+import org.apache.hc.core5.http.EndpointDetails;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.web.client.RestTemplate;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.httpcomponents.hc5.PoolingHttpClientConnectionManagerMetricsBinder;
+
+/**
+ * HTTP transport of the PagerDuty integration: a pooled keep-alive Apache HttpClient 5,
+ * so consecutive calls reuse warm TLS connections instead of handshaking every time.
+ */
+@Configuration
+public class PagerDutyClientConfig {
+
+    @Value("${pagerduty.http.max-connections:50}")
+    private int maxConnections;
+
+    @Value("${pagerduty.http.max-connections-per-route:20}")
+    private int maxConnectionsPerRoute;
+
+    @Value("${pagerduty.http.connect-timeout:5s}")
+    private Duration connectTimeout;
+
+    @Value("${pagerduty.http.read-timeout:10s}")
+    private Duration readTimeout;
+
+    @Value("${pagerduty.http.keep-alive:30s}")
+    private Duration keepAlive;
+
+    @Bean(destroyMethod = "close")
+    public PoolingHttpClientConnectionManager pagerDutyConnectionManager(MeterRegistry meterRegistry) {
+        PoolingHttpClientConnectionManager connectionManager = PoolingHttpClientConnectionManagerBuilder.create()
+            .setMaxConnTotal(maxConnections)
+            .setMaxConnPerRoute(maxConnectionsPerRoute)
+            .setDefaultConnectionConfig(ConnectionConfig.custom()
+                .setConnectTimeout(Timeout.of(connectTimeout))
+                .setSocketTimeout(Timeout.of(readTimeout))
+                .setValidateAfterInactivity(TimeValue.ofSeconds(2))
+                .build())
+            .build();
+        // Leased, available, pending and max connections of the pool
+        new PoolingHttpClientConnectionManagerMetricsBinder(connectionManager, "pagerduty").bindTo(meterRegistry);
+        return connectionManager;
+    }
+
+    @Bean(destroyMethod = "close")
+    public CloseableHttpClient pagerDutyHttpClient(PoolingHttpClientConnectionManager pagerDutyConnectionManager,
+                                                   MeterRegistry meterRegistry) {
+        Counter reused = connectionCounter(meterRegistry, "true");
+        Counter opened = connectionCounter(meterRegistry, "false");
+        return HttpClients.custom()
+            .setConnectionManager(pagerDutyConnectionManager)
+            .setDefaultRequestConfig(RequestConfig.custom()
+                .setConnectionRequestTimeout(Timeout.of(connectTimeout))
+                .setResponseTimeout(Timeout.of(readTimeout))
+                .build())
+            .setKeepAliveStrategy((response, context) -> TimeValue.of(keepAlive))
+            .evictExpiredConnections()
+            .evictIdleConnections(TimeValue.of(keepAlive))
+            // A connection that already carried a request before this one was reused from the pool
+            .addResponseInterceptorLast((response, entity, context) -> {
+                EndpointDetails endpoint = HttpClientContext.adapt(context).getEndpointDetails();
+                if (endpoint != null && endpoint.getRequestCount() > 1) {
+                    reused.increment();
+                } else {
+                    opened.increment();
+                }
+            })
+            .build();
+    }
+
+    @Bean
+    public RestTemplate pagerDutyRestTemplate(RestTemplateBuilder builder, CloseableHttpClient pagerDutyHttpClient) {
+        return builder
+            .requestFactory(() -> new HttpComponentsClientHttpRequestFactory(pagerDutyHttpClient))
+            .build();
+    }
+
+    private static Counter connectionCounter(MeterRegistry meterRegistry, String reused) {
+        return Counter.builder("pagerduty.http.requests")
+            .description("PagerDuty requests by whether they ran on a pooled connection")
+            .tag("connection.reused", reused)
+            .register(meterRegistry);
+    }
+}
@@ -2,25 +2,53 @@ package com.user.permissions.config;
 
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpMethod;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
+import org.springframework.security.core.session.SessionRegistry;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
+import org.springframework.security.web.servlet.util.matcher.PathPatternRequestMatcher;
+import org.springframework.security.web.util.matcher.OrRequestMatcher;
+import org.springframework.security.web.util.matcher.RequestMatcher;
+
+import com.user.permissions.appuser.cache.AppUserProfileCache;
+import com.user.permissions.auth.password.BCryptStrengthCalibrator;
+import com.user.permissions.auth.session.CurrentPrincipal;
+import com.user.permissions.auth.session.PrincipalFilter;
+import com.user.permissions.auth.token.AuthTokenFilter;
+import com.user.permissions.auth.token.AuthTokenService;
+
+import io.micrometer.core.instrument.MeterRegistry;
 
 @Configuration
 @EnableWebSecurity
 public class SecurityConfig {
 
+    // Work factor is calibrated for the host at startup, older hashes are upgraded on login
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(BCryptStrengthCalibrator calibrator) {
+        return new BCryptPasswordEncoder(calibrator.calibrate());
     }
 
     @Bean
-    public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
+    public SecurityFilterChain securityFilterChain(HttpSecurity http, AuthTokenService authTokenService,
+                                                   SessionRegistry sessionRegistry, CurrentPrincipal currentPrincipal,
+                                                   AppUserProfileCache profileCache, MeterRegistry meterRegistry) throws Exception {
+        // Endpoints that need a caller, anonymous requests get their 401 from PrincipalFilter
+        RequestMatcher protectedRequests = new OrRequestMatcher(
+            PathPatternRequestMatcher.withDefaults().matcher("/api/users/**"),
+            PathPatternRequestMatcher.withDefaults().matcher(HttpMethod.PUT, "/api/auth/update"),
+            PathPatternRequestMatcher.withDefaults().matcher(HttpMethod.PATCH, "/api/auth/update"),
+            PathPatternRequestMatcher.withDefaults().matcher(HttpMethod.DELETE, "/api/escalation-policies/cache"));
+        
         http
             .csrf(csrf -> csrf.disable())
+            // Stateless mode (auth.token.enabled): bearer tokens are verified here, without session or DB
+            .addFilterBefore(new AuthTokenFilter(authTokenService), UsernamePasswordAuthenticationFilter.class)
+            .addFilterAfter(new PrincipalFilter(currentPrincipal, profileCache, protectedRequests, meterRegistry), AuthTokenFilter.class)
             .cors(cors -> cors.configurationSource(request -> {
                 var corsConfig = new org.springframework.web.cors.CorsConfiguration();
                 corsConfig.addAllowedOrigin("http://localhost:3000"); //TODO: move to properties.
@@ -32,13 +60,23 @@ public class SecurityConfig {
             .authorizeHttpRequests(auth -> auth
                 .requestMatchers("/api/auth/**").permitAll()
                 .requestMatchers("/h2-console/**").permitAll() //TODO: handle authenticacion properly.
-                .requestMatchers("/api/users/**").permitAll()
+                .requestMatchers("/api/users/**").authenticated()
                 .requestMatchers("/api/escalation-policies/**").permitAll()
+                .requestMatchers("/actuator/health").permitAll()
+                // Metrics expose login, session and PagerDuty internals
+                .requestMatchers("/actuator/**").hasRole("ADMIN")
                 .anyRequest().authenticated()
             )
+            // The registry reads the shared session store, so the limit holds across nodes
             .sessionManagement(session -> session
                 .maximumSessions(1)
                 .maxSessionsPreventsLogin(false)
+                .sessionRegistry(sessionRegistry)
+                .expiredSessionStrategy(event -> {
+                    event.getResponse().setStatus(401);
+                    event.getResponse().setContentType("application/json");
+                    event.getResponse().getWriter().write("{\"error\":\"Session expired, signed in elsewhere\"}");
+                })
             );
 
         return http.build();
@@ -0,0 +1,52 @@
+package com.user.permissions.config;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.security.core.session.SessionRegistry;
+import org.springframework.session.config.annotation.web.http.EnableSpringHttpSession;
+import org.springframework.session.security.SpringSessionBackedSessionRegistry;
+import org.springframework.session.web.http.CookieSerializer;
+import org.springframework.session.web.http.DefaultCookieSerializer;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.user.permissions.auth.session.JdbcSessionRepository;
+import com.user.permissions.auth.session.StoredSession;
+
+/**
+ * HttpSession is backed by {@link JdbcSessionRepository} instead of the container's heap,
+ * so every node sees the same sessions and the one-session-per-user registry works across nodes.
+ */
+@Configuration
+@EnableSpringHttpSession
+@EnableScheduling
+public class SessionStoreConfig {
+
+    @Bean
+    public JdbcSessionRepository sessionRepository(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+            @Value("${server.servlet.session.timeout:30m}") Duration timeout,
+            @Value("${auth.session-store.cache-ttl:2s}") Duration cacheTtl,
+            @Value("${auth.session-store.cache-max-entries:10000}") int cacheMaxEntries) {
+        return new JdbcSessionRepository(jdbcTemplate, new TransactionTemplate(transactionManager),
+            timeout, cacheTtl, cacheMaxEntries);
+    }
+
+    @Bean
+    public SessionRegistry sessionRegistry(JdbcSessionRepository sessionRepository) {
+        return new SpringSessionBackedSessionRegistry<StoredSession>(sessionRepository);
+    }
+
+    // Same cookie the container used, existing clients keep working
+    @Bean
+    public CookieSerializer cookieSerializer() {
+        DefaultCookieSerializer serializer = new DefaultCookieSerializer();
+        serializer.setCookieName("JSESSIONID");
+        serializer.setUseBase64Encoding(false);
+        return serializer;
+    }
+}
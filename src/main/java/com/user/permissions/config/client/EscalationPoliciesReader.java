@@ -0,0 +1,113 @@
+package com.user.permissions.config.client;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.user.permissions.escalationpolicies.model.EscalationPoliciesResponse;
+import com.user.permissions.escalationpolicies.model.EscalationPolicy;
+
+/**
+ * Streaming reader for PagerDuty escalation policy pages. It fills only the fields the API serves
+ * and skips everything else (escalation rules, teams, services...) token by token,
+ * without building a tree or buffering the body.
+ */
+public final class EscalationPoliciesReader {
+
+    private static final JsonFactory JSON_FACTORY = JsonFactory.builder().build();
+
+    private EscalationPoliciesReader() {
+    }
+
+    public static EscalationPoliciesResponse read(InputStream body) throws IOException {
+        EscalationPoliciesResponse response = new EscalationPoliciesResponse();
+        try (JsonParser parser = JSON_FACTORY.createParser(body)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new JsonParseException(parser, "Expected an escalation policies object");
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                parser.nextToken();
+                switch (field) {
+                    case "escalation_policies" -> response.setEscalationPolicies(readPolicies(parser));
+                    case "limit" -> response.setLimit(intValue(parser));
+                    case "offset" -> response.setOffset(intValue(parser));
+                    case "more" -> response.setMore(booleanValue(parser));
+                    case "total" -> response.setTotal(intValue(parser));
+                    default -> parser.skipChildren();
+                }
+            }
+        }
+        return response;
+    }
+
+    private static List<EscalationPolicy> readPolicies(JsonParser parser) throws IOException {
+        if (parser.currentToken() != JsonToken.START_ARRAY) {
+            parser.skipChildren();
+            return null;
+        }
+        List<EscalationPolicy> policies = new ArrayList<>();
+        while (parser.nextToken() != JsonToken.END_ARRAY) {
+            if (parser.currentToken() == JsonToken.START_OBJECT) {
+                policies.add(readPolicy(parser));
+            } else {
+                parser.skipChildren();
+            }
+        }
+        return policies;
+    }
+
+    private static EscalationPolicy readPolicy(JsonParser parser) throws IOException {
+        EscalationPolicy policy = new EscalationPolicy();
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            parser.nextToken();
+            switch (field) {
+                case "id" -> policy.setId(textValue(parser));
+                case "type" -> policy.setType(textValue(parser));
+                case "summary" -> policy.setSummary(textValue(parser));
+                case "on_call_handoff_notifications" -> policy.setOnCallHandoffNotifications(textValue(parser));
+                case "self" -> policy.setSelf(textValue(parser));
+                case "html_url" -> policy.setHtmlUrl(textValue(parser));
+                case "name" -> policy.setName(textValue(parser));
+                case "num_loops" -> policy.setNumLoops(intValue(parser));
+                default -> parser.skipChildren();
+            }
+        }
+        return policy;
+    }
+
+    // A value of an unexpected shape reads as null, like a missing field
+    private static String textValue(JsonParser parser) throws IOException {
+        JsonToken token = parser.currentToken();
+        if (token.isScalarValue()) {
+            return token == JsonToken.VALUE_NULL ? null : parser.getText();
+        }
+        parser.skipChildren();
+        return null;
+    }
+
+    private static Integer intValue(JsonParser parser) throws IOException {
+        if (parser.currentToken() == JsonToken.VALUE_NUMBER_INT) {
+            return parser.getIntValue();
+        }
+        parser.skipChildren();
+        return null;
+    }
+
+    private static Boolean booleanValue(JsonParser parser) throws IOException {
+        return switch (parser.currentToken()) {
+            case VALUE_TRUE -> Boolean.TRUE;
+            case VALUE_FALSE -> Boolean.FALSE;
+            default -> {
+                parser.skipChildren();
+                yield null;
+            }
+        };
+    }
+}
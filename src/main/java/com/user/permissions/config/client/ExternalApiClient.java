@@ -1,27 +1,41 @@
 package com.user.permissions.config.client;
 
 
+import java.io.InputStream;
+import java.net.URI;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
-
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import java.util.zip.GZIPInputStream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.MediaType;
-import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Component;
 import org.springframework.web.client.HttpClientErrorException;
-import org.springframework.web.client.HttpServerErrorException;
 import org.springframework.web.client.RestTemplate;
+import org.springframework.web.util.UriComponentsBuilder;
 
+import com.user.permissions.config.client.PagerDutyUnavailableException.Reason;
 import com.user.permissions.escalationpolicies.model.EscalationPoliciesResponse;
 import com.user.permissions.escalationpolicies.model.EscalationPolicy;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
 @Component
 public class ExternalApiClient {
 
+    private static final Logger log = LoggerFactory.getLogger(ExternalApiClient.class);
+
     private final RestTemplate restTemplate;
     private static final Integer DEFAULT_LIMIT = 25;
     private static final Integer DEFAULT_OFFSET = 0;
@@ -33,81 +47,117 @@ public class ExternalApiClient {
     @Value("${pagerduty.api.token}")
     private String apiToken;
 
-    public ExternalApiClient() {
-        this.restTemplate = new RestTemplate();
+    // Upstream calls in progress by normalized URL, identical concurrent calls wait on the same one
+    private final ConcurrentHashMap<String, CompletableFuture<Optional<EscalationPoliciesResponse>>> inFlight = new ConcurrentHashMap<>();
+    private final Counter coalescedCounter;
+
+    private final PagerDutyCallGuard callGuard;
+
+    // Pooled keep-alive transport from PagerDutyClientConfig
+    public ExternalApiClient(@Qualifier("pagerDutyRestTemplate") RestTemplate restTemplate, PagerDutyCallGuard callGuard,
+                             MeterRegistry meterRegistry) {
+        this.restTemplate = restTemplate;
+        this.callGuard = callGuard;
+        this.coalescedCounter = Counter.builder("pagerduty.requests.coalesced")
+            .description("PagerDuty calls served by joining an identical call already in flight")
+            .register(meterRegistry);
     }
 
     public List<EscalationPolicy> getEscalationPolicies(Integer limit, Integer offset) {
+        return getEscalationPoliciesWithPagination(limit, offset, false, "")
+            .map(EscalationPoliciesResponse::getEscalationPolicies)
+            .orElse(Collections.emptyList());
+    }
+    
+    public Optional<EscalationPoliciesResponse> getEscalationPoliciesWithPagination(Integer limit, Integer offset, Boolean includeTotal, String query) {
+        if (limit == null) limit = DEFAULT_LIMIT;
+        if (offset == null) offset = DEFAULT_OFFSET;
+        if (includeTotal == null) includeTotal = false;
+        String url = escalationPoliciesUrl(limit, offset, includeTotal, query);
+
+        CompletableFuture<Optional<EscalationPoliciesResponse>> call = new CompletableFuture<>();
+        CompletableFuture<Optional<EscalationPoliciesResponse>> running = inFlight.putIfAbsent(url, call);
+        if (running != null) {
+            coalescedCounter.increment();
+            try {
+                return running.join();
+            } catch (CompletionException e) {
+                // The shared call failed: every caller gets the same unavailable result
+                if (e.getCause() instanceof Error error) {
+                    throw error;
+                }
+                throw e.getCause() instanceof RuntimeException cause ? cause : e;
+            }
+        }
         try {
-           
-        	 // Set default values if null
-            if (limit == null) limit = DEFAULT_LIMIT;
-            if (offset == null) offset = DEFAULT_OFFSET;
-
-            String url = String.format("%s/escalation_policies?limit=%d&offset=%d", 
-                                     baseUrl, limit, offset);
-
-            HttpHeaders headers = createHeaders();
-            HttpEntity<String> entity = new HttpEntity<>(headers);
-
-            ResponseEntity<EscalationPoliciesResponse> response = restTemplate.exchange(
-                url, 
-                HttpMethod.GET, 
-                entity, 
-                EscalationPoliciesResponse.class
-            );
+            Optional<EscalationPoliciesResponse> result = fetchEscalationPolicies(url, false);
+            call.complete(result);
+            return result;
+        } catch (Throwable e) {
+            // Errors too, a joiner must never wait on a call that will not complete
+            call.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(url, call);
+        }
+    }
 
-            if (response.getBody() != null && response.getBody().getEscalationPolicies() != null) {
-                return response.getBody().getEscalationPolicies();
-            }
+    /**
+     * Loads a page ahead of any request for it. Speculative: one attempt, skipped rather than queued when
+     * PagerDuty is busy or failing, and never counted against the circuit. Outside the single-flight map,
+     * so a request never ends up waiting on a prefetch that was skipped.
+     */
+    public Optional<EscalationPoliciesResponse> prefetchEscalationPolicies(int limit, int offset, boolean includeTotal, String query) {
+        return fetchEscalationPolicies(escalationPoliciesUrl(limit, offset, includeTotal, query), true);
+    }
 
-            return Collections.emptyList();            
-        } catch (HttpClientErrorException e) {
-            System.err.println("Client error calling PagerDuty API: " + e.getStatusCode() + " - " + e.getResponseBodyAsString());
-            return Collections.emptyList();
-        } catch (HttpServerErrorException e) {
-            System.err.println("Server error calling PagerDuty API: " + e.getStatusCode() + " - " + e.getResponseBodyAsString());
-            return Collections.emptyList();
-        } catch (Exception e) {
-            System.err.println("Unexpected error calling PagerDuty API: " + e.getMessage());
-            return Collections.emptyList();
+    // Same parameters always give the same string: defaults applied, query trimmed and encoded, empty query left out
+    private String escalationPoliciesUrl(int limit, int offset, boolean includeTotal, String query) {
+        UriComponentsBuilder builder = UriComponentsBuilder.fromUriString(baseUrl)
+            .path("/escalation_policies")
+            .queryParam("limit", limit)
+            .queryParam("offset", offset)
+            .queryParam("total", includeTotal);
+        if (query != null && !query.isBlank()) {
+            builder.queryParam("query", query.trim());
         }
+        return builder.encode().build().toUriString();
     }
-    
-    public Optional<EscalationPoliciesResponse> getEscalationPoliciesWithPagination(Integer limit, Integer offset, Boolean includeTotal, String query) {
+
+    // Outages and rejected requests (4xx) both surface as PagerDutyUnavailableException, never as an empty page
+    private Optional<EscalationPoliciesResponse> fetchEscalationPolicies(String url, boolean speculative) {
         try {
-            if (limit == null) limit = DEFAULT_LIMIT;
-            if (offset == null) offset = DEFAULT_OFFSET;
-            if (includeTotal == null) includeTotal = false;
-            
-
-            String url = String.format("%s/escalation_policies?limit=%d&offset=%d&total=%s%s", 
-                                     baseUrl, limit, offset, includeTotal.toString(), 
-                                     !query.equals("")? "&query="+query:"");
-            	
-
-            HttpHeaders headers = createHeaders();
-            HttpEntity<String> entity = new HttpEntity<>(headers);
-
-            ResponseEntity<EscalationPoliciesResponse> response = restTemplate.exchange(
-                url, 
-                HttpMethod.GET, 
-                entity, 
-                EscalationPoliciesResponse.class
+            // Already encoded, a String would be expanded and encoded a second time.
+            // The body is streamed into the response model instead of going through a message converter
+            Supplier<EscalationPoliciesResponse> exchange = () -> restTemplate.execute(
+                URI.create(url),
+                HttpMethod.GET,
+                request -> request.getHeaders().addAll(createHeaders()),
+                clientResponse -> {
+                    InputStream body = clientResponse.getBody();
+                    // The pooled transport inflates gzip itself, this covers one that does not
+                    if ("gzip".equalsIgnoreCase(clientResponse.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING))) {
+                        body = new GZIPInputStream(body);
+                    }
+                    return EscalationPoliciesReader.read(body);
+                }
             );
-            
+            EscalationPoliciesResponse response = speculative ? callGuard.callSpeculative(exchange) : callGuard.call(exchange);
 
-            return Optional.ofNullable(response.getBody());
+            return Optional.ofNullable(response);
 
         } catch (HttpClientErrorException e) {
-            System.err.println("Client error calling PagerDuty API: " + e.getStatusCode() + " - " + e.getResponseBodyAsString());
-            return Optional.empty();
-        } catch (HttpServerErrorException e) {
-            System.err.println("Server error calling PagerDuty API: " + e.getStatusCode() + " - " + e.getResponseBodyAsString());
-            return Optional.empty();
-        } catch (Exception e) {
-            System.err.println("Unexpected error calling PagerDuty API: " + e.getMessage());
-            return Optional.empty();
+            // Not retried and not held against the circuit, but a bad token must not look like "no policies"
+            log.warn("PagerDuty rejected the request: {} - {}", e.getStatusCode(), e.getResponseBodyAsString());
+            throw new PagerDutyUnavailableException("PagerDuty rejected the request: " + e.getStatusCode(),
+                Reason.UPSTREAM_REJECTED, 0, e);
+        } catch (PagerDutyUnavailableException e) {
+            if (speculative) {
+                log.debug("PagerDuty prefetch skipped ({}): {}", e.getReason(), e.getMessage());
+            } else {
+                log.warn("PagerDuty API unavailable ({}): {}", e.getReason(), e.getMessage());
+            }
+            throw e;
         }
     }
     
@@ -122,6 +172,7 @@ public class ExternalApiClient {
         HttpHeaders headers = new HttpHeaders();
         headers.setContentType(MediaType.APPLICATION_JSON);
         headers.set("Accept", "application/json");
+        headers.set(HttpHeaders.ACCEPT_ENCODING, "gzip");
         headers.set("Authorization", "Token token=" + apiToken);
         return headers;
     }
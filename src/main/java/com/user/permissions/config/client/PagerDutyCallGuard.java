@@ -0,0 +1,276 @@
+package com.user.permissions.config.client;
+
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
+
+import com.user.permissions.config.client.PagerDutyUnavailableException.Reason;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Resilience around PagerDuty calls, all of which are idempotent GETs.
+ * A bulkhead caps the request threads waiting on upstream, transient failures (I/O, timeouts, 5xx, 429)
+ * are retried with jittered exponential backoff, or after the delay a 429 asks for, and a circuit breaker
+ * fails fast after repeated failures until a single half-open probe succeeds again.
+ * Speculative calls (prefetches) get a reduced treatment, see {@link #callSpeculative}.
+ */
+@Component
+public class PagerDutyCallGuard {
+
+    enum State { CLOSED, OPEN, HALF_OPEN }
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${pagerduty.resilience.retry.max-attempts:3}")
+    private int maxAttempts;
+
+    @Value("${pagerduty.resilience.retry.initial-backoff:100ms}")
+    private Duration initialBackoff;
+
+    @Value("${pagerduty.resilience.retry.max-backoff:2s}")
+    private Duration maxBackoff;
+
+    @Value("${pagerduty.resilience.circuit.failure-threshold:5}")
+    private int failureThreshold;
+
+    @Value("${pagerduty.resilience.circuit.open-duration:30s}")
+    private Duration openDuration;
+
+    @Value("${pagerduty.resilience.bulkhead.max-concurrent:10}")
+    private int maxConcurrent;
+
+    @Value("${pagerduty.resilience.bulkhead.max-wait:100ms}")
+    private Duration maxWait;
+
+    private final AtomicReference<State> state = new AtomicReference<>(State.CLOSED);
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+    private volatile long openedAt;
+    private Semaphore bulkhead;
+
+    private Counter retries;
+    private Counter failures;
+    private Counter circuitOpened;
+    private Counter rejectedOpen;
+    private Counter rejectedFull;
+    private Counter rejectedRateLimited;
+
+    @PostConstruct
+    void init() {
+        bulkhead = new Semaphore(maxConcurrent);
+        retries = Counter.builder("pagerduty.resilience.retries")
+            .description("PagerDuty calls retried after a transient failure")
+            .register(meterRegistry);
+        failures = Counter.builder("pagerduty.resilience.failures")
+            .description("PagerDuty call attempts that failed and count against the circuit")
+            .register(meterRegistry);
+        circuitOpened = Counter.builder("pagerduty.resilience.circuit.opened")
+            .description("Times the PagerDuty circuit opened")
+            .register(meterRegistry);
+        rejectedOpen = rejectedCounter("circuit_open");
+        rejectedFull = rejectedCounter("bulkhead_full");
+        rejectedRateLimited = rejectedCounter("rate_limited");
+        // 0 closed, 1 half-open, 2 open
+        Gauge.builder("pagerduty.resilience.circuit.state", state, s -> s.get() == State.CLOSED ? 0 : s.get() == State.HALF_OPEN ? 1 : 2)
+            .register(meterRegistry);
+        Gauge.builder("pagerduty.resilience.bulkhead.available", bulkhead, Semaphore::availablePermits)
+            .register(meterRegistry);
+    }
+
+    /**
+     * Runs the call under the bulkhead and circuit breaker, retrying transient failures.
+     * 4xx responses other than 429 are the caller's problem, not an outage: they are rethrown as is
+     * and count neither as a failure nor as a success.
+     */
+    public <T> T call(Supplier<T> call) {
+        RuntimeException lastFailure = null;
+        // Delay asked for by the last 429, -1 when the generic backoff applies
+        long retryAfterMs = -1;
+        for (int attempt = 1; attempt <= maxAttempts; attempt++) {
+            if (attempt > 1) {
+                retries.increment();
+                backoff(attempt - 1, retryAfterMs, lastFailure);
+            }
+            acquireBulkhead();
+            boolean probe = false;
+            try {
+                probe = acquirePermission();
+                T result = call.get();
+                onSuccess();
+                return result;
+            } catch (HttpClientErrorException.TooManyRequests e) {
+                onFailure();
+                lastFailure = e;
+                retryAfterMs = retryAfterMillis(e);
+                // Asked to wait longer than a request thread should: fail now and pass the delay on
+                if (retryAfterMs > maxBackoff.toMillis()) {
+                    rejectedRateLimited.increment();
+                    throw new PagerDutyUnavailableException("PagerDuty rate limit reached", Reason.RATE_LIMITED,
+                        toSeconds(retryAfterMs), e);
+                }
+            } catch (HttpClientErrorException e) {
+                // Says nothing about upstream health: the circuit is left as it was, a probe is released unjudged
+                throw e;
+            } catch (ResourceAccessException | HttpServerErrorException e) {
+                onFailure();
+                lastFailure = e;
+                retryAfterMs = -1;
+            } catch (PagerDutyUnavailableException e) {
+                throw e;
+            } catch (RuntimeException e) {
+                // Not transient (e.g. an unreadable body), retrying would fail the same way
+                onFailure();
+                throw new PagerDutyUnavailableException("PagerDuty call failed: " + e.getMessage(),
+                    Reason.UPSTREAM_ERROR, 1, e);
+            } finally {
+                if (probe) {
+                    releaseProbe();
+                }
+                bulkhead.release();
+            }
+        }
+        if (retryAfterMs >= 0) {
+            throw new PagerDutyUnavailableException("PagerDuty rate limit reached after " + maxAttempts + " attempts",
+                Reason.RATE_LIMITED, toSeconds(retryAfterMs), lastFailure);
+        }
+        throw new PagerDutyUnavailableException("PagerDuty call failed after " + maxAttempts + " attempts: "
+            + lastFailure.getMessage(), Reason.UPSTREAM_ERROR, 1, lastFailure);
+    }
+
+    /**
+     * Runs a call nobody is waiting for: a single attempt, only while the circuit is closed and a bulkhead
+     * permit is free right away. Its outcome never moves the circuit, so speculation can neither trip it
+     * nor act as the half-open probe, and it never makes a waiting request queue behind it.
+     */
+    public <T> T callSpeculative(Supplier<T> call) {
+        if (state.get() != State.CLOSED) {
+            throw new PagerDutyUnavailableException("PagerDuty circuit is not closed", Reason.CIRCUIT_OPEN, 1, null);
+        }
+        if (!bulkhead.tryAcquire()) {
+            throw new PagerDutyUnavailableException("No free PagerDuty call slot for a speculative call",
+                Reason.BULKHEAD_FULL, 1, null);
+        }
+        try {
+            return call.get();
+        } catch (PagerDutyUnavailableException e) {
+            throw e;
+        } catch (RuntimeException e) {
+            throw new PagerDutyUnavailableException("Speculative PagerDuty call failed: " + e.getMessage(),
+                Reason.UPSTREAM_ERROR, 1, e);
+        } finally {
+            bulkhead.release();
+        }
+    }
+
+    private void acquireBulkhead() {
+        boolean acquired;
+        try {
+            acquired = bulkhead.tryAcquire(maxWait.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            acquired = false;
+        }
+        if (!acquired) {
+            rejectedFull.increment();
+            throw new PagerDutyUnavailableException("Too many PagerDuty calls in progress", Reason.BULKHEAD_FULL, 1, null);
+        }
+    }
+
+    // Closed lets everything through. Once open_duration has passed, the first caller becomes the half-open probe
+    private boolean acquirePermission() {
+        State current = state.get();
+        if (current == State.CLOSED) {
+            return false;
+        }
+        long openFor = System.nanoTime() - openedAt;
+        if (current == State.OPEN && openFor >= openDuration.toNanos()
+                && state.compareAndSet(State.OPEN, State.HALF_OPEN)) {
+            return true;
+        }
+        rejectedOpen.increment();
+        long retryAfter = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(openDuration.toNanos() - openFor + 999_999_999L));
+        throw new PagerDutyUnavailableException("PagerDuty circuit is open", Reason.CIRCUIT_OPEN, retryAfter, null);
+    }
+
+    // A probe that ended without a verdict (a rejected request, an Error) reopens the circuit as it was, so the next caller probes
+    private void releaseProbe() {
+        state.compareAndSet(State.HALF_OPEN, State.OPEN);
+    }
+
+    private void onSuccess() {
+        consecutiveFailures.set(0);
+        state.compareAndSet(State.HALF_OPEN, State.CLOSED);
+    }
+
+    private void onFailure() {
+        failures.increment();
+        if (state.get() == State.HALF_OPEN || consecutiveFailures.incrementAndGet() >= failureThreshold) {
+            openedAt = System.nanoTime();
+            if (state.getAndSet(State.OPEN) != State.OPEN) {
+                circuitOpened.increment();
+            }
+        }
+    }
+
+    // Equal jitter: half the exponential step is fixed, the other half random, so retries spread out but always wait.
+    // A 429 says how long to wait, that delay is used as is
+    private void backoff(int retry, long retryAfterMs, RuntimeException lastFailure) {
+        long step = Math.min(maxBackoff.toMillis(), initialBackoff.toMillis() << Math.min(retry - 1, 20));
+        long sleepMs = retryAfterMs >= 0 ? retryAfterMs : step / 2 + ThreadLocalRandom.current().nextLong(step / 2 + 1);
+        try {
+            Thread.sleep(sleepMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new PagerDutyUnavailableException("Interrupted while retrying PagerDuty call",
+                Reason.UPSTREAM_ERROR, 1, lastFailure);
+        }
+    }
+
+    // Retry-After is either delay-seconds or an HTTP date, -1 when absent or unreadable
+    private static long retryAfterMillis(HttpClientErrorException e) {
+        String value = e.getResponseHeaders() != null ? e.getResponseHeaders().getFirst(HttpHeaders.RETRY_AFTER) : null;
+        if (value == null || value.isBlank()) {
+            return -1;
+        }
+        try {
+            return Math.max(0, Long.parseLong(value.trim()) * 1000);
+        } catch (NumberFormatException notSeconds) {
+            try {
+                ZonedDateTime at = ZonedDateTime.parse(value.trim(), DateTimeFormatter.RFC_1123_DATE_TIME);
+                return Math.max(0, Duration.between(ZonedDateTime.now(at.getZone()), at).toMillis());
+            } catch (DateTimeParseException notDate) {
+                return -1;
+            }
+        }
+    }
+
+    private static long toSeconds(long millis) {
+        return Math.max(1, (millis + 999) / 1000);
+    }
+
+    private Counter rejectedCounter(String reason) {
+        return Counter.builder("pagerduty.resilience.rejected")
+            .description("PagerDuty calls failed fast without reaching upstream")
+            .tag("reason", reason)
+            .register(meterRegistry);
+    }
+}
@@ -0,0 +1,24 @@
+package com.user.permissions.config.client;
+
+/**
+ * Thrown when PagerDuty can't serve a call: retries exhausted, rate limited, circuit open, bulkhead full,
+ * or the request itself rejected (4xx, e.g. a bad token). Lets callers tell a failure apart from an empty
+ * result, the API answers rejections with 502 and everything else with 503 and Retry-After.
+ */
+public class PagerDutyUnavailableException extends RuntimeException {
+
+    public enum Reason { UPSTREAM_ERROR, UPSTREAM_REJECTED, RATE_LIMITED, CIRCUIT_OPEN, BULKHEAD_FULL }
+
+    private final Reason reason;
+    private final long retryAfterSeconds;
+
+    public PagerDutyUnavailableException(String message, Reason reason, long retryAfterSeconds, Throwable cause) {
+        super(message, cause);
+        this.reason = reason;
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public Reason getReason() { return reason; }
+
+    public long getRetryAfterSeconds() { return retryAfterSeconds; }
+}
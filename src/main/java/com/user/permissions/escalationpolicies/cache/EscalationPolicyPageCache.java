@@ -0,0 +1,266 @@
+package com.user.permissions.escalationpolicies.cache;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.user.permissions.config.client.ExternalApiClient;
+import com.user.permissions.config.client.PagerDutyUnavailableException;
+import com.user.permissions.escalationpolicies.model.EscalationPoliciesResponse;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Bounded cache of PagerDuty escalation policy pages keyed by (limit, offset, total, query).
+ * Within the TTL a page is served as is. Past it, and until the stale window ends, the cached page
+ * is still served immediately while a single background refresh reloads it from upstream.
+ * Pages following the one just served can be prefetched, so paging forward is answered locally.
+ */
+@Component
+public class EscalationPolicyPageCache {
+
+    private record PageKey(int limit, int offset, boolean total, String query) {}
+
+    // prefetched stays true until the first request reads the page, to measure whether speculation pays off
+    private record Entry(EscalationPoliciesResponse page, long loadedAt, boolean prefetched) {}
+
+    @Autowired
+    private ExternalApiClient externalApiClient;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${pagerduty.policy-cache.ttl:60s}")
+    private Duration ttl;
+
+    @Value("${pagerduty.policy-cache.stale-window:10m}")
+    private Duration staleWindow;
+
+    @Value("${pagerduty.policy-cache.max-entries:500}")
+    private int maxEntries;
+
+    @Value("${pagerduty.policy-cache.refresh-threads:2}")
+    private int refreshThreads;
+
+    @Value("${pagerduty.policy-prefetch.depth:1}")
+    private int prefetchDepth;
+
+    @Value("${pagerduty.policy-prefetch.max-concurrent:2}")
+    private int prefetchConcurrency;
+
+    private Map<PageKey, Entry> entries;
+    private final Set<PageKey> refreshing = ConcurrentHashMap.newKeySet();
+    // Bumped on invalidation so loads that started before it do not put old pages back
+    private volatile long generation;
+    private ThreadPoolExecutor refreshExecutor;
+    private ThreadPoolExecutor prefetchExecutor;
+
+    private Counter hits;
+    private Counter staleHits;
+    private Counter misses;
+    private Counter sizeEvictions;
+    private Counter expiredEvictions;
+    private Counter invalidatedEvictions;
+    private Counter prefetchIssued;
+    private Counter prefetchUsed;
+    private Counter prefetchSkipped;
+
+    @PostConstruct
+    void init() {
+        entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<PageKey, Entry> eldest) {
+                if (size() > maxEntries) {
+                    sizeEvictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+        // Refreshes are best effort: when the queue is full the stale page is simply served a bit longer
+        refreshExecutor = new ThreadPoolExecutor(refreshThreads, refreshThreads, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(maxEntries),
+            Thread.ofPlatform().name("policy-cache-refresh-", 0).daemon(true).factory(),
+            new ThreadPoolExecutor.AbortPolicy());
+        // No queue: a prefetch that cannot start right away is skipped, it would likely arrive too late
+        prefetchExecutor = new ThreadPoolExecutor(prefetchConcurrency, prefetchConcurrency, 0L, TimeUnit.MILLISECONDS,
+            new SynchronousQueue<>(),
+            Thread.ofPlatform().name("policy-prefetch-", 0).daemon(true).factory(),
+            new ThreadPoolExecutor.AbortPolicy());
+
+        hits = requestCounter("hit");
+        staleHits = requestCounter("stale");
+        misses = requestCounter("miss");
+        sizeEvictions = evictionCounter("size");
+        expiredEvictions = evictionCounter("expired");
+        invalidatedEvictions = evictionCounter("invalidated");
+        prefetchIssued = prefetchCounter("issued");
+        prefetchUsed = prefetchCounter("used");
+        prefetchSkipped = prefetchCounter("skipped");
+        Gauge.builder("pagerduty.policy-cache.size", this, cache -> cache.size())
+            .register(meterRegistry);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        refreshExecutor.shutdownNow();
+        prefetchExecutor.shutdownNow();
+    }
+
+    public Optional<EscalationPoliciesResponse> get(int limit, int offset, boolean total, String query) {
+        PageKey key = new PageKey(limit, offset, total, query == null ? "" : query);
+        long now = System.nanoTime();
+        Entry entry;
+        synchronized (entries) {
+            entry = entries.get(key);
+            if (entry != null && now - entry.loadedAt() > ttl.toNanos() + staleWindow.toNanos()) {
+                entries.remove(key);
+                expiredEvictions.increment();
+                entry = null;
+            }
+            if (entry != null && entry.prefetched()) {
+                prefetchUsed.increment();
+                entries.put(key, new Entry(entry.page(), entry.loadedAt(), false));
+            }
+        }
+
+        if (entry == null) {
+            misses.increment();
+            return load(key, false);
+        }
+        if (now - entry.loadedAt() <= ttl.toNanos()) {
+            hits.increment();
+            return Optional.of(entry.page());
+        }
+
+        staleHits.increment();
+        refreshInBackground(key);
+        return Optional.of(entry.page());
+    }
+
+    /**
+     * Loads up to prefetch-depth pages after the one at offset in the background, skipping pages
+     * already cached or being loaded. remainingPages bounds the walk to pages that exist.
+     */
+    public void prefetchFollowing(int limit, int offset, boolean total, String query, int remainingPages) {
+        String normalizedQuery = query == null ? "" : query;
+        int pages = Math.min(prefetchDepth, remainingPages);
+        for (int i = 1; i <= pages; i++) {
+            PageKey key = new PageKey(limit, offset + i * limit, total, normalizedQuery);
+            synchronized (entries) {
+                Entry cached = entries.get(key);
+                if (cached != null && System.nanoTime() - cached.loadedAt() <= ttl.toNanos()) {
+                    continue;
+                }
+            }
+            if (!refreshing.add(key)) {
+                continue;
+            }
+            try {
+                prefetchExecutor.execute(() -> {
+                    try {
+                        load(key, true);
+                    } catch (PagerDutyUnavailableException e) {
+                        // Speculative, nobody is waiting for it: dropped when PagerDuty is busy or failing
+                        prefetchSkipped.increment();
+                    } finally {
+                        refreshing.remove(key);
+                    }
+                });
+                prefetchIssued.increment();
+            } catch (RejectedExecutionException e) {
+                refreshing.remove(key);
+                prefetchSkipped.increment();
+            }
+        }
+    }
+
+    /** Drops every cached page, the next request for each goes upstream. */
+    public int invalidateAll() {
+        synchronized (entries) {
+            generation++;
+            int dropped = entries.size();
+            entries.clear();
+            invalidatedEvictions.increment(dropped);
+            return dropped;
+        }
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    // Empty or failed upstream calls are not cached, so the next request tries again
+    private Optional<EscalationPoliciesResponse> load(PageKey key, boolean prefetched) {
+        long loadGeneration = generation;
+        Optional<EscalationPoliciesResponse> loaded = prefetched
+            ? externalApiClient.prefetchEscalationPolicies(key.limit(), key.offset(), key.total(), key.query())
+            : externalApiClient.getEscalationPoliciesWithPagination(key.limit(), key.offset(), key.total(), key.query());
+        loaded.ifPresent(page -> {
+            synchronized (entries) {
+                if (generation == loadGeneration) {
+                    entries.put(key, new Entry(page, System.nanoTime(), prefetched));
+                }
+            }
+        });
+        return loaded;
+    }
+
+    private void refreshInBackground(PageKey key) {
+        if (!refreshing.add(key)) {
+            return;
+        }
+        try {
+            refreshExecutor.execute(() -> {
+                try {
+                    load(key, false);
+                } catch (PagerDutyUnavailableException e) {
+                    // Keeps serving the stale page, the next stale hit tries again
+                } finally {
+                    refreshing.remove(key);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            refreshing.remove(key);
+        }
+    }
+
+    private Counter requestCounter(String result) {
+        return Counter.builder("pagerduty.policy-cache.requests")
+            .description("Escalation policy page lookups by cache outcome")
+            .tag("result", result)
+            .register(meterRegistry);
+    }
+
+    private Counter prefetchCounter(String result) {
+        return Counter.builder("pagerduty.policy-cache.prefetch")
+            .description("Speculative next-page loads: issued, later read by a request, or skipped when PagerDuty is busy or failing")
+            .tag("result", result)
+            .register(meterRegistry);
+    }
+
+    private Counter evictionCounter(String cause) {
+        return Counter.builder("pagerduty.policy-cache.evictions")
+            .description("Escalation policy pages dropped from the cache")
+            .tag("cause", cause)
+            .register(meterRegistry);
+    }
+}
@@ -1,27 +1,55 @@
 package com.user.permissions.escalationpolicies.controller;
 
+import java.time.LocalDateTime;
 import java.util.Collections;
 import java.util.Map;
 import java.util.Optional;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
-import com.user.permissions.config.client.ExternalApiClient;
+import com.user.permissions.auth.session.CurrentPrincipal;
+import com.user.permissions.auth.session.SessionPrincipal;
+import com.user.permissions.config.client.PagerDutyUnavailableException;
+import com.user.permissions.config.client.PagerDutyUnavailableException.Reason;
+import com.user.permissions.escalationpolicies.cache.EscalationPolicyPageCache;
 import com.user.permissions.escalationpolicies.model.EscalationPoliciesResponse;
+import com.user.permissions.escalationpolicies.model.EscalationPolicy;
+import com.user.permissions.escalationpolicies.repository.EscalationPolicieRepository;
 import com.user.permissions.escalationpolicies.request.EscalationPolicyRequest;
+import com.user.permissions.escalationpolicies.sync.EscalationPolicySync;
 
 import jakarta.servlet.http.HttpSession;
 
 @RestController
 @RequestMapping("/api/escalation-policies")
 public class EscalationPoliciesController {
+
+    private static final Logger log = LoggerFactory.getLogger(EscalationPoliciesController.class);
     
     @Autowired
-    private ExternalApiClient externalApiClient;
+    private EscalationPolicieRepository escalationPolicieRepository;
+
+    @Autowired
+    private EscalationPolicyPageCache policyPageCache;
+
+    @Autowired
+    private ObjectProvider<EscalationPolicySync> policySync;
+
+    @Autowired
+    private CurrentPrincipal currentPrincipal;
     
     @GetMapping("/list")
     public ResponseEntity<?> listEscalationPolicies(EscalationPolicyRequest request, HttpSession session) {	
@@ -49,9 +77,16 @@ public class EscalationPoliciesController {
             // Calculate offset (PagerDuty uses 0-based offset)
             int offset = (page - 1) * size;
             
+            // Served from the local mirror once the first sync has completed
+            LocalDateTime syncedAt = escalationPolicieRepository.findLastSyncedAt();
+            if (syncedAt != null) {
+                return ResponseEntity.ok(listFromMirror(page, size, offset, query, syncedAt));
+            }
+            
+            // Mirror still empty (first sync pending or disabled): go to PagerDuty through the page cache
             // Call API with total=true to get total count
             boolean includeTotalInTheResponseFlag = true;
-            Optional<EscalationPoliciesResponse> response = externalApiClient.getEscalationPoliciesWithPagination(size, offset, includeTotalInTheResponseFlag, query);
+            Optional<EscalationPoliciesResponse> response = policyPageCache.get(size, offset, includeTotalInTheResponseFlag, query);
             
             if (response.isPresent()) {
                 EscalationPoliciesResponse data = response.get();
@@ -61,6 +96,9 @@ public class EscalationPoliciesController {
                 int totalPages = (int) Math.ceil((double) totalRecords / size);
                 boolean hasNext = page < totalPages;
                 boolean hasPrevious = page > 1;
+                if (hasNext) {
+                    policyPageCache.prefetchFollowing(size, offset, includeTotalInTheResponseFlag, query, totalPages - page);
+                }
                 
                 return ResponseEntity.ok(Map.of(
                     "success", includeTotalInTheResponseFlag,
@@ -94,8 +132,25 @@ public class EscalationPoliciesController {
                 ));
             }
             
+        } catch (PagerDutyUnavailableException e) {
+            if (e.getReason() == Reason.UPSTREAM_REJECTED) {
+                // Our credentials or request were refused, retrying will not help until that is fixed
+                return ResponseEntity.status(502).body(Map.of(
+                    "success", false,
+                    "error", "PagerDuty rejected the request.",
+                    "reason", e.getReason().name().toLowerCase()
+                ));
+            }
+            // Outage, not an empty result: clients can back off instead of showing "no policies"
+            return ResponseEntity.status(503)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                .body(Map.of(
+                    "success", false,
+                    "error", "PagerDuty is currently unavailable. Please try again later.",
+                    "reason", e.getReason().name().toLowerCase()
+                ));
         } catch (Exception e) {
-            System.err.println("Error retrieving escalation policies: " + e.getMessage());
+            log.error("Error retrieving escalation policies", e);
             return ResponseEntity.status(500).body(Map.of(
                 "success", false,
                 "error", "Failed to retrieve escalation policies. Please try again.",
@@ -103,4 +158,47 @@ public class EscalationPoliciesController {
             ));
         }
     }
-}
\ No newline at end of file
+
+    private Map<String, Object> listFromMirror(int page, int size, int offset, String query, LocalDateTime syncedAt) {
+        Pageable pageable = PageRequest.of(page - 1, size, Sort.by("name", "id"));
+        Page<EscalationPolicy> policies = query == null || query.isBlank()
+            ? escalationPolicieRepository.findAll(pageable)
+            : escalationPolicieRepository.findByNameContainingIgnoreCase(query.trim(), pageable);
+        
+        return Map.of(
+            "success", true,
+            "escalationPolicies", policies.getContent(),
+            "pagination", Map.of(
+                "currentPage", page,
+                "pageSize", size,
+                "totalRecords", policies.getTotalElements(),
+                "totalPages", policies.getTotalPages(),
+                "hasNext", policies.hasNext(),
+                "hasPrevious", page > 1,
+                "offset", offset,
+                "limit", size
+            ),
+            "syncedAt", syncedAt
+        );
+    }
+
+    // After policies were edited in PagerDuty: drops the cached pages and resyncs the mirror in the background,
+    // reads keep being served from the current mirror until the run completes
+    @DeleteMapping("/cache")
+    public ResponseEntity<?> invalidateCache() {
+        SessionPrincipal sessionUser = currentPrincipal.get();
+        if (!sessionUser.isAdmin()) {
+            return ResponseEntity.status(403).body(Map.of("error", "Access denied. Admin privileges required."));
+        }
+        int dropped = policyPageCache.invalidateAll();
+        EscalationPolicySync sync = policySync.getIfAvailable();
+        if (sync != null) {
+            sync.requestSync();
+        }
+        return ResponseEntity.ok(Map.of(
+            "success", true,
+            "invalidatedEntries", dropped,
+            "resyncRequested", sync != null
+        ));
+    }
+}
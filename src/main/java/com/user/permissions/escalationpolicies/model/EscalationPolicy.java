@@ -1,24 +1,52 @@
 package com.user.permissions.escalationpolicies.model;
 
+import java.time.LocalDateTime;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
 
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+
+// Local mirror of the PagerDuty policies, filled by EscalationPolicySync
+@Entity
+@Table(name = "escalation_policies", indexes = {
+    @Index(name = "idx_escalation_policies_name", columnList = "name, id"),
+    @Index(name = "idx_escalation_policies_synced_at", columnList = "synced_at")
+})
 public class EscalationPolicy {
+    @Id
     private String id;
+    
+    @Column(name = "policy_type")
     private String type;
+    
     private String summary;
     
     @JsonProperty("on_call_handoff_notifications")
+    @Column(name = "on_call_handoff_notifications")
     private String onCallHandoffNotifications;
     
+    @Column(name = "self_url")
     private String self;
     
     @JsonProperty("html_url")
+    @Column(name = "html_url")
     private String htmlUrl;
     
     private String name;
     
     @JsonProperty("num_loops")
+    @Column(name = "num_loops")
     private Integer numLoops;
+    
+    // Start of the sync run that last saw this policy upstream
+    @JsonIgnore
+    @Column(name = "synced_at")
+    private LocalDateTime syncedAt;
 
     // Constructors
     public EscalationPolicy() {}
@@ -56,6 +84,9 @@ public class EscalationPolicy {
     public Integer getNumLoops() { return numLoops; }
     public void setNumLoops(Integer numLoops) { this.numLoops = numLoops; }
 
+    public LocalDateTime getSyncedAt() { return syncedAt; }
+    public void setSyncedAt(LocalDateTime syncedAt) { this.syncedAt = syncedAt; }
+
     @Override
     public String toString() {
         return "EscalationPolicy{" +
@@ -1,5 +1,22 @@
 package com.user.permissions.escalationpolicies.repository;
 
-public class EscalationPolicieRepository {
+import java.time.LocalDateTime;
 
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import com.user.permissions.escalationpolicies.model.EscalationPolicy;
+
+@Repository
+public interface EscalationPolicieRepository extends JpaRepository<EscalationPolicy, String> {
+    
+    // Same matching as the PagerDuty query parameter: case-insensitive substring of the name
+    Page<EscalationPolicy> findByNameContainingIgnoreCase(String query, Pageable pageable);
+    
+    // Freshness of the mirror, null until the first sync has completed
+    @Query("select max(p.syncedAt) from EscalationPolicy p")
+    LocalDateTime findLastSyncedAt();
 }
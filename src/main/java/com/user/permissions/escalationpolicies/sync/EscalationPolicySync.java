@@ -0,0 +1,144 @@
+package com.user.permissions.escalationpolicies.sync;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.user.permissions.config.client.ExternalApiClient;
+import com.user.permissions.config.client.PagerDutyUnavailableException;
+import com.user.permissions.escalationpolicies.model.EscalationPoliciesResponse;
+import com.user.permissions.escalationpolicies.model.EscalationPolicy;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Keeps the local escalation policy mirror in step with PagerDuty by walking every upstream page.
+ * A run that fails halfway leaves the previous mirror untouched, policies are only deleted
+ * after a complete walk no longer returned them.
+ * Runs never overlap on a node: a run requested while one is in progress is done right after it.
+ */
+@Component
+@ConditionalOnProperty(name = "pagerduty.policy-sync.enabled", havingValue = "true", matchIfMissing = true)
+public class EscalationPolicySync {
+
+    private static final Logger log = LoggerFactory.getLogger(EscalationPolicySync.class);
+
+    // Largest page PagerDuty accepts
+    private static final int PAGE_SIZE = 100;
+
+    @Autowired
+    private ExternalApiClient externalApiClient;
+
+    @Autowired
+    private EscalationPolicyMirrorWriter mirrorWriter;
+
+    @Autowired
+    private TaskScheduler taskScheduler;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${pagerduty.policy-sync.max-policies:10000}")
+    private int maxPolicies;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+    private final AtomicBoolean pending = new AtomicBoolean();
+    private Timer syncTimer;
+    private Counter failedCounter;
+
+    @PostConstruct
+    void init() {
+        syncTimer = Timer.builder("pagerduty.policy-sync.duration")
+            .description("Time spent on a complete escalation policy sync")
+            .register(meterRegistry);
+        failedCounter = Counter.builder("pagerduty.policy-sync.failures")
+            .description("Escalation policy syncs aborted because an upstream page could not be read or written")
+            .register(meterRegistry);
+    }
+
+    @Scheduled(initialDelayString = "${pagerduty.policy-sync.initial-delay-ms:0}",
+               fixedDelayString = "${pagerduty.policy-sync.interval-ms:300000}")
+    public void sync() {
+        pending.set(true);
+        drain();
+    }
+
+    /** Starts a run in the background, e.g. after policies were edited in PagerDuty. */
+    public void requestSync() {
+        pending.set(true);
+        taskScheduler.schedule(this::drain, Instant.now());
+    }
+
+    private void drain() {
+        while (pending.get() && running.compareAndSet(false, true)) {
+            try {
+                pending.set(false);
+                syncOnce();
+            } finally {
+                running.set(false);
+            }
+        }
+    }
+
+    private void syncOnce() {
+        long start = System.nanoTime();
+        LocalDateTime runStart = LocalDateTime.now();
+        List<EscalationPolicy> policies = new ArrayList<>();
+        boolean complete = false;
+
+        int offset = 0;
+        while (offset < maxPolicies) {
+            Optional<EscalationPoliciesResponse> response;
+            try {
+                response = externalApiClient.getEscalationPoliciesWithPagination(PAGE_SIZE, offset, false, "");
+            } catch (PagerDutyUnavailableException e) {
+                response = Optional.empty();
+            }
+            if (response.isEmpty()) {
+                failedCounter.increment();
+                log.warn("Escalation policy sync aborted at offset {}, keeping the previous mirror", offset);
+                return;
+            }
+            List<EscalationPolicy> page = response.get().getEscalationPolicies();
+            if (page == null || page.isEmpty() || !Boolean.TRUE.equals(response.get().getMore())) {
+                if (page != null) {
+                    policies.addAll(page);
+                }
+                complete = true;
+                break;
+            }
+            policies.addAll(page);
+            offset += page.size();
+        }
+
+        // A walk cut short by max-policies cannot tell deleted policies from unread ones
+        EscalationPolicyMirrorWriter.Result result;
+        try {
+            result = mirrorWriter.write(policies, runStart, complete);
+        } catch (RuntimeException e) {
+            // Typically another node inserted the same new policy first, the next run catches up
+            failedCounter.increment();
+            log.warn("Escalation policy sync could not write the mirror, keeping the previous one", e);
+            return;
+        }
+        syncTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        log.info("Escalation policy sync: {} inserted, {} updated, {} removed",
+            result.inserted(), result.updated(), result.removed());
+    }
+}
@@ -0,0 +1,75 @@
+package com.user.permissions.appuser.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.user.permissions.appuser.AppUserSummary;
+import com.user.permissions.appuser.repository.AppUserRepository;
+
+public class AppUserProfileCacheTest {
+
+    private final AppUserRepository repository = mock(AppUserRepository.class);
+    private final AppUserProfileCache cache = new AppUserProfileCache();
+
+    @BeforeEach
+    public void setUp() {
+        ReflectionTestUtils.setField(cache, "appUserRepository", repository);
+        ReflectionTestUtils.setField(cache, "maxEntries", 100);
+        ReflectionTestUtils.setField(cache, "ttl", Duration.ofMinutes(1));
+        cache.init();
+    }
+
+    private static AppUserSummary summary(String role) {
+        LocalDateTime now = LocalDateTime.now();
+        return new AppUserSummary(1L, "user@example.com", "User", role, now, now);
+    }
+
+    @Test
+    public void testProfileIsLoadedOnce() {
+        when(repository.findSummaryById(1L)).thenReturn(Optional.of(summary("USER")));
+
+        assertEquals("USER", cache.get(1L).orElseThrow().role());
+        assertEquals("USER", cache.get(1L).orElseThrow().role());
+
+        verify(repository, times(1)).findSummaryById(1L);
+    }
+
+    @Test
+    public void testMissingUserIsCached() {
+        when(repository.findSummaryById(1L)).thenReturn(Optional.empty());
+
+        assertTrue(cache.get(1L).isEmpty());
+        assertTrue(cache.get(1L).isEmpty());
+
+        verify(repository, times(1)).findSummaryById(1L);
+    }
+
+    @Test
+    public void testLoadRacingAnInvalidationIsNotCached() {
+        // The old row is read, then the update commits and invalidates before the load is stored
+        when(repository.findSummaryById(1L))
+            .thenAnswer(invocation -> {
+                cache.invalidate(1L);
+                return Optional.of(summary("ADMIN"));
+            })
+            .thenReturn(Optional.of(summary("USER")));
+
+        assertEquals("ADMIN", cache.get(1L).orElseThrow().role());
+        assertEquals("USER", cache.get(1L).orElseThrow().role());
+        assertEquals("USER", cache.get(1L).orElseThrow().role());
+
+        verify(repository, times(2)).findSummaryById(1L);
+    }
+}
@@ -0,0 +1,99 @@
+package com.user.permissions.appuser.validation;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.user.permissions.appuser.request.CreateUserRequest;
+import com.user.permissions.appuser.request.ProfileUpdateRequest;
+import com.user.permissions.appuser.request.UpdateUserRequest;
+
+public class AppUserValidatorTest {
+
+    private final AppUserValidator validator = new AppUserValidator();
+
+    // ============ NEW USER TESTS ============
+
+    @Test
+    public void testValidNewUserSharesNoErrors() {
+        ValidationErrors errors = validator.validateNewUser(
+            new CreateUserRequest("new@example.com", "secret1", "New User", "USER"));
+
+        assertSame(ValidationErrors.NONE, errors);
+        assertTrue(errors.isEmpty());
+    }
+
+    @Test
+    public void testNewUserCollectsEveryFieldInOrder() {
+        ValidationErrors errors = validator.validateNewUser(new CreateUserRequest(" ", null, "", "OWNER"));
+
+        assertEquals(List.of("email", "password", "name", "role"), List.copyOf(errors.asMap().keySet()));
+        assertEquals("Email is required", errors.first());
+        assertEquals("Role must be either USER or ADMIN", errors.asMap().get("role"));
+    }
+
+    @Test
+    public void testNullNewUserReportsEmailFirst() {
+        assertEquals("Email is required", validator.validateNewUser(null).first());
+    }
+
+    // ============ USER UPDATE TESTS ============
+
+    @Test
+    public void testUserUpdateWithOnlyBlankFieldsIsRejected() {
+        ValidationErrors errors = validator.validateUserUpdate(new UpdateUserRequest(" ", null, "", null));
+
+        assertEquals("No valid fields provided for update", errors.first());
+    }
+
+    @Test
+    public void testUserUpdateChecksSuppliedRole() {
+        assertTrue(validator.validateUserUpdate(new UpdateUserRequest(null, null, "Renamed", null)).isEmpty());
+        assertTrue(validator.validateUserUpdate(new UpdateUserRequest(null, null, null, "ADMIN")).isEmpty());
+
+        ValidationErrors errors = validator.validateUserUpdate(new UpdateUserRequest(null, null, "Renamed", "OWNER"));
+        assertEquals(List.of("role"), List.copyOf(errors.asMap().keySet()));
+    }
+
+    // ============ PROFILE TESTS ============
+
+    @Test
+    public void testProfileCollectsEveryFieldInOrder() {
+        ValidationErrors errors = validator.validateProfile(new ProfileUpdateRequest("", "not-an-email", "123"));
+
+        assertEquals(List.of("name", "email", "password"), List.copyOf(errors.asMap().keySet()));
+        assertEquals("Please provide a valid email address", errors.asMap().get("email"));
+        assertEquals("Password must be at least 6 characters long", errors.asMap().get("password"));
+    }
+
+    @Test
+    public void testProfilePatchSkipsMissingFields() {
+        assertSame(ValidationErrors.NONE, validator.validateProfilePatch(new ProfileUpdateRequest("Renamed", null, null)));
+
+        ValidationErrors errors = validator.validateProfilePatch(new ProfileUpdateRequest(null, " ", null));
+        assertEquals(List.of("email"), List.copyOf(errors.asMap().keySet()));
+    }
+
+    @Test
+    public void testProfileRequiresEveryField() {
+        ValidationErrors errors = validator.validateProfile(new ProfileUpdateRequest(null, null, null));
+
+        assertEquals(3, errors.asMap().size());
+        assertFalse(errors.isEmpty());
+    }
+
+    // ============ EMAIL TESTS ============
+
+    @Test
+    public void testEmailPattern() {
+        assertTrue(validator.isValidEmail(" user.name+tag@example.co "));
+        assertFalse(validator.isValidEmail("user@example"));
+        assertFalse(validator.isValidEmail("@example.com"));
+        assertFalse(validator.isValidEmail(null));
+    }
+}
@@ -0,0 +1,49 @@
+package com.user.permissions.auth.token;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.user.permissions.auth.session.SessionPrincipal;
+
+public class AuthTokenServiceTest {
+
+    private static final String SECRET = "l+vNLt3CL6QWJJQf6ysjjVzW4yxkruJpskkNkHwrgrI=";
+
+    private static AuthTokenService service(boolean enabled, String secret) {
+        AuthTokenService service = new AuthTokenService();
+        ReflectionTestUtils.setField(service, "enabled", enabled);
+        ReflectionTestUtils.setField(service, "secret", secret);
+        ReflectionTestUtils.setField(service, "ttlSeconds", 60L);
+        return service;
+    }
+
+    @Test
+    public void testTokenModeWithoutSecretFailsAtStartup() {
+        assertThrows(IllegalStateException.class, () -> service(true, "").init());
+    }
+
+    @Test
+    public void testInstancesSharingTheSecretAcceptEachOthersTokens() {
+        AuthTokenService issuer = service(true, SECRET);
+        issuer.init();
+        AuthTokenService verifier = service(true, SECRET);
+        verifier.init();
+        SessionPrincipal principal = new SessionPrincipal(7L, "user@example.com", "ADMIN", 42L);
+
+        assertEquals(principal, verifier.verify(issuer.issue(principal)));
+    }
+
+    @Test
+    public void testTokenFromAnotherSecretIsRejected() {
+        AuthTokenService issuer = service(false, "");
+        issuer.init();
+        AuthTokenService verifier = service(true, SECRET);
+        verifier.init();
+
+        assertNull(verifier.verify(issuer.issue(new SessionPrincipal(7L, "user@example.com", "USER", 42L))));
+    }
+}
@@ -0,0 +1,127 @@
+package com.user.permissions.config.client;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import org.junit.jupiter.api.Test;
+
+import com.user.permissions.escalationpolicies.model.EscalationPoliciesResponse;
+import com.user.permissions.escalationpolicies.model.EscalationPolicy;
+
+public class EscalationPoliciesReaderTest {
+
+    private static final String PAGE = "{"
+        + "\"escalation_policies\":[{"
+        + "\"id\":\"P1\",\"type\":\"escalation_policy\",\"summary\":\"Ops\",\"name\":\"Ops\","
+        + "\"on_call_handoff_notifications\":\"if_has_services\","
+        + "\"self\":\"https://api.pagerduty.com/escalation_policies/P1\","
+        + "\"html_url\":\"https://example.pagerduty.com/escalation_policies/P1\",\"num_loops\":2,"
+        + "\"escalation_rules\":[{\"id\":\"R1\",\"escalation_delay_in_minutes\":30,"
+        + "\"targets\":[{\"id\":\"U1\",\"type\":\"user_reference\",\"name\":\"nested name\"}]}],"
+        + "\"teams\":[{\"id\":\"T1\",\"summary\":\"nested summary\"}],"
+        + "\"services\":[],\"privilege\":{\"id\":\"X\",\"nested\":{\"name\":\"deep\"}}"
+        + "}],"
+        + "\"unknown_array\":[[1,2],{\"limit\":99}],\"unknown_object\":{\"total\":99},"
+        + "\"limit\":25,\"offset\":0,\"more\":true,\"total\":1"
+        + "}";
+
+    private static EscalationPoliciesResponse read(String json) throws IOException {
+        return EscalationPoliciesReader.read(new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    // ============ FIELD TESTS ============
+
+    @Test
+    public void testReadsServedFieldsAndSkipsSubTrees() throws IOException {
+        EscalationPoliciesResponse response = read(PAGE);
+
+        assertEquals(25, response.getLimit());
+        assertEquals(0, response.getOffset());
+        assertTrue(response.getMore());
+        // Values inside skipped objects and arrays never leak into the page
+        assertEquals(1, response.getTotal());
+        assertEquals(1, response.getEscalationPolicies().size());
+
+        EscalationPolicy policy = response.getEscalationPolicies().get(0);
+        assertEquals("P1", policy.getId());
+        assertEquals("escalation_policy", policy.getType());
+        assertEquals("Ops", policy.getName());
+        assertEquals("Ops", policy.getSummary());
+        assertEquals("if_has_services", policy.getOnCallHandoffNotifications());
+        assertEquals("https://api.pagerduty.com/escalation_policies/P1", policy.getSelf());
+        assertEquals("https://example.pagerduty.com/escalation_policies/P1", policy.getHtmlUrl());
+        assertEquals(2, policy.getNumLoops());
+    }
+
+    @Test
+    public void testMissingAndNullFieldsReadAsNull() throws IOException {
+        EscalationPoliciesResponse response = read(
+            "{\"escalation_policies\":[{\"id\":\"P1\",\"name\":null,\"num_loops\":null,\"summary\":{\"a\":1}}],"
+            + "\"more\":null,\"total\":null}");
+
+        assertNull(response.getLimit());
+        assertNull(response.getOffset());
+        assertNull(response.getMore());
+        assertNull(response.getTotal());
+
+        EscalationPolicy policy = response.getEscalationPolicies().get(0);
+        assertEquals("P1", policy.getId());
+        assertNull(policy.getName());
+        assertNull(policy.getNumLoops());
+        // A value of an unexpected shape is skipped and reads as null
+        assertNull(policy.getSummary());
+        assertNull(policy.getType());
+    }
+
+    @Test
+    public void testEmptyAndMissingPolicyList() throws IOException {
+        assertTrue(read("{\"escalation_policies\":[],\"more\":false}").getEscalationPolicies().isEmpty());
+        assertFalse(read("{\"escalation_policies\":[],\"more\":false}").getMore());
+        assertNull(read("{\"limit\":25}").getEscalationPolicies());
+        assertNull(read("{\"escalation_policies\":null}").getEscalationPolicies());
+    }
+
+    // ============ ENCODING TESTS ============
+
+    @Test
+    public void testReadsGzipBody() throws IOException {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+            gzip.write(PAGE.getBytes(StandardCharsets.UTF_8));
+        }
+
+        InputStream body = new GZIPInputStream(new ByteArrayInputStream(compressed.toByteArray()));
+        EscalationPoliciesResponse response = EscalationPoliciesReader.read(body);
+
+        assertEquals("P1", response.getEscalationPolicies().get(0).getId());
+        assertEquals(1, response.getTotal());
+    }
+
+    // ============ MALFORMED BODY TESTS ============
+
+    @Test
+    public void testTruncatedBodyFailsInsteadOfReturningPartialPage() {
+        String truncated = PAGE.substring(0, PAGE.indexOf("\"teams\""));
+
+        assertThrows(IOException.class, () -> read(truncated));
+        assertThrows(IOException.class, () -> read("{\"escalation_policies\":[{\"id\":\"P1\"}"));
+        assertThrows(IOException.class, () -> read("{\"escalation_policies\":[],\"total\":1"));
+    }
+
+    @Test
+    public void testNonObjectBodyFails() {
+        assertThrows(IOException.class, () -> read("[]"));
+        assertThrows(IOException.class, () -> read(""));
+    }
+}
@@ -1,12 +1,16 @@
 package com.user.permissions.controller;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -23,6 +27,8 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.test.annotation.DirtiesContext;
 import com.user.permissions.appuser.AppUser;
+import com.user.permissions.appuser.AppUserSummary;
+import com.user.permissions.appuser.cache.AppUserJsonCache;
 import com.user.permissions.appuser.repository.AppUserRepository;
 
 @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
@@ -37,6 +43,8 @@ public class AppUserControllerRestTest {
     private AppUserRepository userRepository;
     @Autowired
     private PasswordEncoder passwordEncoder;
+    @Autowired
+    private AppUserJsonCache appUserJsonCache;
     private String baseUrl;
     private AppUser testUser;
     private AppUser adminUser;
@@ -119,6 +127,153 @@ public class AppUserControllerRestTest {
         assertEquals("Not authenticated", body.get("error"));
     }
 
+    @Test
+    public void testListUsersWithCursor() {
+        String sessionId = loginAndGetSessionId("admin@example.com", "admin123");
+        
+        ResponseEntity<Map> firstPage = makeGetRequestWithSession("/users/list?limit=1", sessionId, Map.class);
+        
+        assertEquals(HttpStatus.OK, firstPage.getStatusCode());
+        Map<String, Object> body = firstPage.getBody();
+        List<Map<String, Object>> users = (List<Map<String, Object>>) body.get("users");
+        assertEquals(1, users.size());
+        assertEquals("test@example.com", users.get(0).get("email"));
+        assertTrue((Boolean) body.get("hasMore"));
+        
+        String cursor = (String) body.get("nextCursor");
+        assertNotNull(cursor);
+        
+        ResponseEntity<Map> secondPage = makeGetRequestWithSession("/users/list?limit=1&after=" + cursor, sessionId, Map.class);
+        
+        assertEquals(HttpStatus.OK, secondPage.getStatusCode());
+        body = secondPage.getBody();
+        users = (List<Map<String, Object>>) body.get("users");
+        assertEquals(1, users.size());
+        assertEquals("admin@example.com", users.get(0).get("email"));
+        assertFalse((Boolean) body.get("hasMore"));
+        assertNull(body.get("nextCursor"));
+    }
+
+    @Test
+    public void testListUsersWithInvalidCursor() {
+        String sessionId = loginAndGetSessionId("admin@example.com", "admin123");
+        
+        ResponseEntity<Map> response = makeGetRequestWithSession("/users/list?after=not-a-cursor", sessionId, Map.class);
+        
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        assertEquals("Invalid cursor", response.getBody().get("error"));
+    }
+
+    // ============ EXPORT USERS TESTS ============
+    @Test
+    public void testExportUsersAsNdjson() {
+        String sessionId = loginAndGetSessionId("admin@example.com", "admin123");
+        
+        HttpHeaders headers = new HttpHeaders();
+        headers.set("Cookie", sessionId);
+        ResponseEntity<String> response = restTemplate.exchange(baseUrl + "/users/export", HttpMethod.GET, new HttpEntity<>(headers), String.class);
+        
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        
+        String[] lines = response.getBody().trim().split("\n");
+        assertEquals(2, lines.length);
+        assertTrue(lines[0].contains("\"email\":\"test@example.com\""));
+        assertTrue(lines[1].contains("\"email\":\"admin@example.com\""));
+        assertFalse(response.getBody().contains("password"));
+    }
+
+    @Test
+    public void testExportUsersAsCsv() {
+        String sessionId = loginAndGetSessionId("admin@example.com", "admin123");
+        
+        HttpHeaders headers = new HttpHeaders();
+        headers.set("Cookie", sessionId);
+        ResponseEntity<String> response = restTemplate.exchange(baseUrl + "/users/export?format=csv", HttpMethod.GET, new HttpEntity<>(headers), String.class);
+        
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        
+        String[] lines = response.getBody().trim().split("\n");
+        assertEquals(3, lines.length); // Header plus two users
+        assertEquals("id,email,name,role,createdAt,updatedAt", lines[0]);
+        assertTrue(lines[1].startsWith(testUser.getId() + ",test@example.com,Test User,USER,"));
+    }
+
+    @Test
+    public void testExportUsersAsRegularUser() {
+        String sessionId = loginAndGetSessionId("test@example.com", "password123");
+        
+        ResponseEntity<Map> response = makeGetRequestWithSession("/users/export", sessionId, Map.class);
+        
+        assertEquals(HttpStatus.FORBIDDEN, response.getStatusCode());
+    }
+
+    @Test
+    public void testDemotedAdminLosesAccessOnExistingSession() {
+        String sessionId = loginAndGetSessionId("admin@example.com", "admin123");
+        ResponseEntity<Map> before = makeGetRequestWithSession("/users/export", sessionId, Map.class);
+        assertEquals(HttpStatus.OK, before.getStatusCode());
+
+        AppUser admin = userRepository.findById(adminUser.getId()).orElseThrow();
+        admin.setRole("USER");
+        userRepository.save(admin);
+
+        // The session still says ADMIN, the principal is refreshed from the current profile
+        ResponseEntity<Map> after = makeGetRequestWithSession("/users/export", sessionId, Map.class);
+        assertEquals(HttpStatus.FORBIDDEN, after.getStatusCode());
+    }
+
+    @Test
+    public void testDeletedUserSessionIsRejected() {
+        String sessionId = loginAndGetSessionId("test@example.com", "password123");
+        userRepository.deleteById(testUser.getId());
+
+        ResponseEntity<Map> response = makeGetRequestWithSession("/users/list", sessionId, Map.class);
+
+        assertEquals(HttpStatus.UNAUTHORIZED, response.getStatusCode());
+    }
+
+    // ============ ETAG TESTS ============
+    @Test
+    public void testGetUserByIdNotModifiedWhenEtagMatches() {
+        String sessionId = loginAndGetSessionId("admin@example.com", "admin123");
+        
+        ResponseEntity<Map> first = makeGetRequestWithSession("/users/get/" + testUser.getId(), sessionId, Map.class);
+        assertEquals(HttpStatus.OK, first.getStatusCode());
+        String etag = first.getHeaders().getETag();
+        assertNotNull(etag);
+        
+        HttpHeaders headers = new HttpHeaders();
+        headers.set("Cookie", sessionId);
+        headers.setIfNoneMatch(etag);
+        ResponseEntity<Map> second = restTemplate.exchange(baseUrl + "/users/get/" + testUser.getId(), HttpMethod.GET, new HttpEntity<>(headers), Map.class);
+        
+        assertEquals(HttpStatus.NOT_MODIFIED, second.getStatusCode());
+        assertEquals(etag, second.getHeaders().getETag());
+        assertNull(second.getBody());
+    }
+
+    @Test
+    public void testListUsersEtagChangesAfterUpdate() {
+        String sessionId = loginAndGetSessionId("admin@example.com", "admin123");
+        
+        ResponseEntity<Map> first = makeGetRequestWithSession("/users/list", sessionId, Map.class);
+        String etag = first.getHeaders().getETag();
+        assertNotNull(etag);
+        
+        ResponseEntity<Map> updateResponse = makePutRequestWithSession("/users/update/" + testUser.getId(), Map.of("name", "Changed Name"), sessionId, Map.class);
+        assertEquals(HttpStatus.OK, updateResponse.getStatusCode());
+        
+        // The stale tag no longer matches, so the full list comes back with a new tag
+        HttpHeaders headers = new HttpHeaders();
+        headers.set("Cookie", sessionId);
+        headers.setIfNoneMatch(etag);
+        ResponseEntity<Map> second = restTemplate.exchange(baseUrl + "/users/list", HttpMethod.GET, new HttpEntity<>(headers), Map.class);
+        
+        assertEquals(HttpStatus.OK, second.getStatusCode());
+        assertNotNull(second.getHeaders().getETag());
+        assertFalse(etag.equals(second.getHeaders().getETag()));
+    }
+
     // ============ SEARCH USERS TESTS ============
     @Test
     public void testSearchUsersByEmail() {
@@ -197,6 +352,31 @@ public class AppUserControllerRestTest {
         assertEquals(0, (Integer) body.get("totalCount"));
     }
 
+    @Test
+    public void testSearchUsersPaginated() {
+        String sessionId = loginAndGetSessionId("admin@example.com", "admin123");
+        
+        ResponseEntity<Map> response = makeGetRequestWithSession("/users/search?email=example&page=2&size=1", sessionId, Map.class);
+        
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        
+        Map<String, Object> body = response.getBody();
+        List<Map<String, Object>> users = (List<Map<String, Object>>) body.get("users");
+        assertEquals(1, users.size());
+        assertEquals("admin@example.com", users.get(0).get("email")); // Sorted by id, admin was created second
+        assertEquals(2, (Integer) body.get("totalCount"));
+    }
+
+    @Test
+    public void testSearchUsersInvalidPageSize() {
+        String sessionId = loginAndGetSessionId("admin@example.com", "admin123");
+        
+        ResponseEntity<Map> response = makeGetRequestWithSession("/users/search?size=0", sessionId, Map.class);
+        
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        assertEquals("Page size must be between 1 and 100", response.getBody().get("error"));
+    }
+
     @Test
     public void testSearchUsersAsRegularUser() {
         String sessionId = loginAndGetSessionId("test@example.com", "password123");
@@ -610,6 +790,18 @@ public class AppUserControllerRestTest {
      assertEquals("User not found", body.get("error"));
  }
 
+ @Test
+ public void testUpdateMissingUserIsNotFoundBeforeFieldChecks() {
+     String sessionId = loginAndGetSessionId("admin@example.com", "admin123");
+     
+     // Invalid role and no usable fields: the missing user is still reported first
+     ResponseEntity<Map> invalidRole = makePutRequestWithSession("/users/update/999", Map.of("role", "FOO"), sessionId, Map.class);
+     ResponseEntity<Map> noFields = makePutRequestWithSession("/users/update/999", Map.of(), sessionId, Map.class);
+     
+     assertEquals(HttpStatus.NOT_FOUND, invalidRole.getStatusCode());
+     assertEquals(HttpStatus.NOT_FOUND, noFields.getStatusCode());
+ }
+
  @Test
  public void testUpdateUserDuplicateEmail() {
      String sessionId = loginAndGetSessionId("admin@example.com", "admin123");
@@ -691,6 +883,72 @@ public class AppUserControllerRestTest {
      assertEquals("Not authenticated", body.get("error"));
  }
 
+ @Test
+ public void testBulkCreateUsersAsAdmin() {
+     String sessionId = loginAndGetSessionId("admin@example.com", "admin123");
+     
+     List<Map<String, String>> bulkRequest = List.of(
+         Map.of("email", "bulk1@example.com", "password", "password123", "name", "Bulk One", "role", "USER"),
+         Map.of("email", "Bulk2@Example.com", "password", "password123", "name", "Bulk Two", "role", "ADMIN"),
+         Map.of("email", "bulk3@example.com", "password", "password123", "name", "Bulk Three", "role", "USER")
+     );
+     
+     ResponseEntity<Map> response = makePostRequestWithSession("/users/bulk", bulkRequest, sessionId, Map.class);
+     
+     assertEquals(HttpStatus.CREATED, response.getStatusCode());
+     
+     Map<String, Object> body = response.getBody();
+     assertTrue((Boolean) body.get("success"));
+     assertEquals(3, (Integer) body.get("createdCount"));
+     
+     // Verify users were saved, normalized, and can log in
+     assertTrue(userRepository.findByEmail("bulk2@example.com").isPresent());
+     assertEquals(5, userRepository.count());
+     
+     Map<String, String> loginRequest = Map.of("email", "bulk3@example.com", "password", "password123");
+     ResponseEntity<Map> loginResponse = makePostRequest("/auth/login", loginRequest, Map.class);
+     assertEquals(HttpStatus.OK, loginResponse.getStatusCode());
+ }
+
+ @Test
+ public void testBulkCreateUsersRejectsWholeBatchOnErrors() {
+     String sessionId = loginAndGetSessionId("admin@example.com", "admin123");
+     
+     List<Map<String, String>> bulkRequest = List.of(
+         Map.of("email", "valid@example.com", "password", "password123", "name", "Valid", "role", "USER"),
+         Map.of("email", "test@example.com", "password", "password123", "name", "Taken", "role", "USER"),
+         Map.of("email", "valid@example.com", "password", "password123", "name", "Repeated", "role", "USER"),
+         Map.of("email", "norole@example.com", "password", "password123", "name", "No Role", "role", "INVALID")
+     );
+     
+     ResponseEntity<Map> response = makePostRequestWithSession("/users/bulk", bulkRequest, sessionId, Map.class);
+     
+     assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+     
+     List<Map<String, Object>> errors = (List<Map<String, Object>>) response.getBody().get("errors");
+     assertEquals(3, errors.size());
+     assertEquals(1, (Integer) errors.get(0).get("index"));
+     assertEquals("Email already exists", errors.get(0).get("error"));
+     assertEquals("Duplicate email in request", errors.get(1).get("error"));
+     assertEquals("Role must be either USER or ADMIN", errors.get(2).get("error"));
+     
+     // Nothing was inserted
+     assertEquals(2, userRepository.count());
+ }
+
+ @Test
+ public void testBulkCreateUsersAsRegularUser() {
+     String sessionId = loginAndGetSessionId("test@example.com", "password123");
+     
+     List<Map<String, String>> bulkRequest = List.of(
+         Map.of("email", "bulk1@example.com", "password", "password123", "name", "Bulk One", "role", "USER")
+     );
+     
+     ResponseEntity<Map> response = makePostRequestWithSession("/users/bulk", bulkRequest, sessionId, Map.class);
+     
+     assertEquals(HttpStatus.FORBIDDEN, response.getStatusCode());
+ }
+
  // ============ HELPER METHODS FOR CREATE/UPDATE TESTS ============
  private ResponseEntity<Map> makePostRequestWithSession(String endpoint, Object body, String sessionId, Class<Map> responseType) {
      HttpHeaders headers = new HttpHeaders();
@@ -838,6 +1096,143 @@ public class AppUserControllerRestTest {
        assertFalse(userFoundInList);
    }
  
+   @Test
+   public void testSearchReflectsUpdatesAndDeletes() {
+       String sessionId = loginAndGetSessionId("admin@example.com", "admin123");
+       
+       ResponseEntity<Map> updateResponse = makePutRequestWithSession("/users/update/" + testUser.getId(), Map.of("name", "Renamed Person"), sessionId, Map.class);
+       assertEquals(HttpStatus.OK, updateResponse.getStatusCode());
+       
+       // New name is searchable, old one is gone
+       ResponseEntity<Map> byNewName = makeGetRequestWithSession("/users/search?name=renamed", sessionId, Map.class);
+       List<Map<String, Object>> users = (List<Map<String, Object>>) byNewName.getBody().get("users");
+       assertEquals(1, users.size());
+       assertEquals("Renamed Person", users.get(0).get("name"));
+       
+       ResponseEntity<Map> byOldName = makeGetRequestWithSession("/users/search?name=Test User", sessionId, Map.class);
+       assertEquals(0, ((List<?>) byOldName.getBody().get("users")).size());
+       
+       ResponseEntity<Map> deleteResponse = makeDeleteRequestWithSession("/users/delete/" + testUser.getId(), sessionId, Map.class);
+       assertEquals(HttpStatus.OK, deleteResponse.getStatusCode());
+       
+       ResponseEntity<Map> afterDelete = makeGetRequestWithSession("/users/search?name=renamed", sessionId, Map.class);
+       assertEquals(0, ((List<?>) afterDelete.getBody().get("users")).size());
+   }
+ 
+   // ============ SUMMARY PROJECTION TESTS ============
+   @Test
+   public void testReadEndpointsReturnOnlySummaryFields() {
+       String sessionId = loginAndGetSessionId("admin@example.com", "admin123");
+       Set<String> summaryFields = Set.of("id", "email", "name", "role", "createdAt", "updatedAt");
+       
+       ResponseEntity<Map> list = makeGetRequestWithSession("/users/list", sessionId, Map.class);
+       for (Map<String, Object> user : (List<Map<String, Object>>) list.getBody().get("users")) {
+           assertEquals(summaryFields, user.keySet());
+       }
+       
+       ResponseEntity<Map> search = makeGetRequestWithSession("/users/search?email=example", sessionId, Map.class);
+       for (Map<String, Object> user : (List<Map<String, Object>>) search.getBody().get("users")) {
+           assertEquals(summaryFields, user.keySet());
+       }
+       
+       ResponseEntity<Map> get = makeGetRequestWithSession("/users/get/" + testUser.getId(), sessionId, Map.class);
+       Map<String, Object> user = (Map<String, Object>) get.getBody().get("user");
+       assertEquals(summaryFields, user.keySet());
+       assertNotNull(user.get("createdAt"));
+   }
+ 
+   // ============ JSON CACHE TESTS ============
+   @Test
+   public void testUserJsonIsReusedUntilInvalidated() throws Exception {
+       AppUserSummary summary = userRepository.findSummaryById(testUser.getId()).get();
+       
+       byte[] first = appUserJsonCache.userJson(summary);
+       assertSame(first, appUserJsonCache.userJson(summary));
+       
+       appUserJsonCache.invalidate(testUser.getId());
+       byte[] reserialized = appUserJsonCache.userJson(summary);
+       assertNotSame(first, reserialized);
+       assertArrayEquals(first, reserialized);
+   }
+ 
+   @Test
+   public void testReadsReflectUpdateAfterCachedResponse() {
+       String sessionId = loginAndGetSessionId("admin@example.com", "admin123");
+       
+       // Warm the cache with the current JSON
+       ResponseEntity<Map> before = makeGetRequestWithSession("/users/get/" + testUser.getId(), sessionId, Map.class);
+       assertEquals("Test User", ((Map<String, Object>) before.getBody().get("user")).get("name"));
+       makeGetRequestWithSession("/users/list", sessionId, Map.class);
+       
+       ResponseEntity<Map> update = makePutRequestWithSession("/users/update/" + testUser.getId(), Map.of("name", "Cached Then Renamed"), sessionId, Map.class);
+       assertEquals(HttpStatus.OK, update.getStatusCode());
+       
+       ResponseEntity<Map> after = makeGetRequestWithSession("/users/get/" + testUser.getId(), sessionId, Map.class);
+       assertEquals("Cached Then Renamed", ((Map<String, Object>) after.getBody().get("user")).get("name"));
+       List<Map<String, Object>> users = (List<Map<String, Object>>) makeGetRequestWithSession("/users/list", sessionId, Map.class).getBody().get("users");
+       assertTrue(users.stream().anyMatch(user -> "Cached Then Renamed".equals(user.get("name"))));
+   }
+ 
+   // ============ BULK UPDATE / DELETE TESTS ============
+   @Test
+   public void testBulkUpdateRoleAsAdmin() {
+       String sessionId = loginAndGetSessionId("admin@example.com", "admin123");
+       
+       Map<String, Object> request = Map.of("ids", List.of(testUser.getId()), "role", "ADMIN");
+       ResponseEntity<Map> response = makePutRequestWithSession("/users/bulk-update-role", request, sessionId, Map.class);
+       
+       assertEquals(HttpStatus.OK, response.getStatusCode());
+       assertEquals(1, (Integer) response.getBody().get("updatedCount"));
+       assertEquals("ADMIN", userRepository.findById(testUser.getId()).get().getRole());
+       
+       // Search sees the new role right away
+       ResponseEntity<Map> search = makeGetRequestWithSession("/users/search?email=test&role=ADMIN", sessionId, Map.class);
+       assertEquals(1, ((List<?>) search.getBody().get("users")).size());
+   }
+
+   @Test
+   public void testBulkUpdateRoleAsRegularUser() {
+       String sessionId = loginAndGetSessionId("test@example.com", "password123");
+       
+       Map<String, Object> request = Map.of("ids", List.of(testUser.getId()), "role", "ADMIN");
+       ResponseEntity<Map> response = makePutRequestWithSession("/users/bulk-update-role", request, sessionId, Map.class);
+       
+       assertEquals(HttpStatus.FORBIDDEN, response.getStatusCode());
+       assertEquals("USER", userRepository.findById(testUser.getId()).get().getRole());
+   }
+
+   @Test
+   public void testBulkDeleteUsersAsAdmin() {
+       String sessionId = loginAndGetSessionId("admin@example.com", "admin123");
+       
+       AppUser extraUser = new AppUser();
+       extraUser.setEmail("extra@example.com");
+       extraUser.setPassword(passwordEncoder.encode("password123"));
+       extraUser.setName("Extra User");
+       extraUser.setRole("USER");
+       extraUser = userRepository.save(extraUser);
+       
+       Map<String, Object> request = Map.of("ids", List.of(testUser.getId(), extraUser.getId(), 999999));
+       ResponseEntity<Map> response = makePostRequestWithSession("/users/bulk-delete", request, sessionId, Map.class);
+       
+       assertEquals(HttpStatus.OK, response.getStatusCode());
+       assertEquals(3, (Integer) response.getBody().get("requestedCount"));
+       assertEquals(2, (Integer) response.getBody().get("deletedCount"));
+       assertEquals(1, userRepository.count());
+   }
+
+   @Test
+   public void testBulkDeleteIncludingOwnAccount() {
+       String sessionId = loginAndGetSessionId("admin@example.com", "admin123");
+       
+       Map<String, Object> request = Map.of("ids", List.of(testUser.getId(), adminUser.getId()));
+       ResponseEntity<Map> response = makePostRequestWithSession("/users/bulk-delete", request, sessionId, Map.class);
+       
+       assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+       assertEquals("You cannot delete your own account", response.getBody().get("error"));
+       assertEquals(2, userRepository.count());
+   }
+ 
    //============ ADDITIONAL HELPER METHODS ============
    private ResponseEntity<Map> makeDeleteRequestWithSession(String endpoint, String sessionId, Class<Map> responseType) {
      HttpHeaders headers = new HttpHeaders();
@@ -8,6 +8,8 @@ import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadPoolExecutor;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -21,11 +23,16 @@ import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import com.user.permissions.appuser.AppUser;
 import com.user.permissions.appuser.repository.AppUserRepository;
+import com.user.permissions.auth.password.PasswordVerifier;
+
+import io.micrometer.core.instrument.MeterRegistry;
 
 @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
 @DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
@@ -43,6 +50,12 @@ public class AuthControllerRestTest {
     @Autowired
     private PasswordEncoder passwordEncoder;
 
+    @Autowired
+    private PasswordVerifier passwordVerifier;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
     private String baseUrl;
     private AppUser testUser;
     private AppUser adminUser;
@@ -98,6 +111,39 @@ public class AuthControllerRestTest {
         assertNull(user.get("password")); // Password should not be returned
     }
 
+    @Test
+    public void testLoginUpgradesWeakPasswordHash() throws InterruptedException {
+        AppUser legacyUser = new AppUser();
+        legacyUser.setEmail("legacy@example.com");
+        legacyUser.setPassword(new BCryptPasswordEncoder(4).encode("legacy123"));
+        legacyUser.setName("Legacy User");
+        legacyUser.setRole("USER");
+        userRepository.save(legacyUser);
+
+        Map<String, String> loginRequest = Map.of(
+            "email", "legacy@example.com",
+            "password", "legacy123"
+        );
+        ResponseEntity<Map> response = makePostRequest("/login", loginRequest, Map.class);
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+
+        // The rehash runs in the background, wait for it
+        String hash = null;
+        for (int attempt = 0; attempt < 50; attempt++) {
+            hash = userRepository.findByEmail("legacy@example.com").get().getPassword();
+            if (!hash.startsWith("$2a$04$")) {
+                break;
+            }
+            Thread.sleep(100);
+        }
+        assertFalse(hash.startsWith("$2a$04$"));
+        assertFalse(passwordEncoder.upgradeEncoding(hash));
+
+        // The upgraded hash still accepts the same password
+        response = makePostRequest("/login", loginRequest, Map.class);
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+    }
+
     @Test
     public void testLoginWithTestUser() {
         Map<String, String> loginRequest = Map.of(
@@ -153,6 +199,98 @@ public class AuthControllerRestTest {
         assertEquals("Invalid email or password", body.get("error"));
     }
 
+    @Test
+    public void testLoginThrottledAfterRepeatedFailures() {
+        Map<String, String> wrongLogin = Map.of(
+            "email", "admin@example.com",
+            "password", "wrongpassword"
+        );
+        for (int attempt = 0; attempt < 5; attempt++) {
+            ResponseEntity<Map> response = makePostRequest("/login", wrongLogin, Map.class);
+            assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        }
+
+        // Even the right password is refused until the bucket refills
+        Map<String, String> loginRequest = Map.of(
+            "email", "admin@example.com",
+            "password", "admin123"
+        );
+        ResponseEntity<Map> response = makePostRequest("/login", loginRequest, Map.class);
+
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, response.getStatusCode());
+        assertNotNull(response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+        assertFalse((Boolean) response.getBody().get("success"));
+    }
+
+    @Test
+    public void testLoginThrottlesForwardedClientsIndependently() {
+        // Exhaust the IP bucket of one client behind the proxy, spreading failures over many emails
+        // so the per-email buckets never fill
+        for (int attempt = 0; attempt < 50; attempt++) {
+            Map<String, String> wrongLogin = Map.of(
+                "email", "unknown" + attempt + "@example.com",
+                "password", "wrongpassword"
+            );
+            ResponseEntity<Map> response = makePostRequestFrom("203.0.113.10", "/login", wrongLogin, Map.class);
+            assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        }
+
+        Map<String, String> loginRequest = Map.of(
+            "email", "admin@example.com",
+            "password", "admin123"
+        );
+        ResponseEntity<Map> throttled = makePostRequestFrom("203.0.113.10", "/login", loginRequest, Map.class);
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, throttled.getStatusCode());
+
+        // Another client behind the same proxy is not affected
+        ResponseEntity<Map> response = makePostRequestFrom("198.51.100.20", "/login", loginRequest, Map.class);
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertTrue((Boolean) response.getBody().get("success"));
+    }
+
+    @Test
+    public void testLoginRejectedWhenVerificationPoolIsFull() {
+        // Occupy every verification thread and queue slot
+        ThreadPoolExecutor executor = (ThreadPoolExecutor) ReflectionTestUtils.getField(passwordVerifier, "executor");
+        CountDownLatch release = new CountDownLatch(1);
+        int slots = executor.getMaximumPoolSize() + executor.getQueue().remainingCapacity();
+        try {
+            for (int i = 0; i < slots; i++) {
+                executor.execute(() -> {
+                    try {
+                        release.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                });
+            }
+
+            Map<String, String> loginRequest = Map.of(
+                "email", "admin@example.com",
+                "password", "admin123"
+            );
+            ResponseEntity<Map> response = makePostRequest("/login", loginRequest, Map.class);
+
+            assertEquals(HttpStatus.SERVICE_UNAVAILABLE, response.getStatusCode());
+            assertEquals("2", response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+            assertFalse((Boolean) response.getBody().get("success"));
+        } finally {
+            release.countDown();
+        }
+    }
+
+    @Test
+    public void testVerificationMetricsAreAdminOnly() {
+        String actuatorUrl = "http://localhost:" + port + "/prueba-tecnica/actuator";
+        String userSession = loginAndGetSessionId("test@example.com", "password123");
+        String adminSession = loginAndGetSessionId("admin@example.com", "admin123");
+
+        assertEquals(HttpStatus.OK, restTemplate.getForEntity(actuatorUrl + "/health", Map.class).getStatusCode());
+        assertTrue(restTemplate.getForEntity(actuatorUrl + "/metrics", Map.class).getStatusCode().is4xxClientError());
+        assertEquals(HttpStatus.FORBIDDEN, getWithSession(actuatorUrl + "/metrics", userSession).getStatusCode());
+        assertEquals(HttpStatus.OK, getWithSession(actuatorUrl + "/metrics", adminSession).getStatusCode());
+    }
+
     @Test
     public void testLoginWithEmptyCredentials() {
         Map<String, String> loginRequest = Map.of(
@@ -201,6 +339,23 @@ public class AuthControllerRestTest {
         assertEquals("Admin User", user.get("name"));
     }
 
+    @Test
+    public void testGetCurrentUserReflectsProfileChanges() {
+        String sessionId = loginAndGetSessionId("admin@example.com", "admin123");
+        
+        // Warm the profile cache, then change the user behind the session's back
+        makeGetRequestWithSession("/me", sessionId, Map.class);
+        AppUser admin = userRepository.findByEmail("admin@example.com").get();
+        admin.setName("Renamed Admin");
+        userRepository.save(admin);
+        
+        ResponseEntity<Map> response = makeGetRequestWithSession("/me", sessionId, Map.class);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        Map<String, Object> user = (Map<String, Object>) response.getBody().get("user");
+        assertEquals("Renamed Admin", user.get("name"));
+    }
+
     @Test
     public void testLogout() {
         // First login
@@ -243,6 +398,42 @@ public class AuthControllerRestTest {
         assertNull(user.get("password")); // Password should not be returned
     }
 
+    @Test
+    public void testPatchUserUpdatesOnlySuppliedFields() {
+        String sessionId = loginAndGetSessionId("test@example.com", "password123");
+        String passwordHash = userRepository.findByEmail("test@example.com").get().getPassword();
+        
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        headers.set("Cookie", sessionId);
+        ResponseEntity<Map> response = restTemplate.exchange(baseUrl + "/update", HttpMethod.PATCH,
+            new HttpEntity<>(Map.of("name", "Renamed User"), headers), Map.class);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        Map<String, Object> user = (Map<String, Object>) response.getBody().get("user");
+        assertEquals("Renamed User", user.get("name"));
+        assertEquals("test@example.com", user.get("email"));
+        
+        // No new password was sent, the stored hash is untouched
+        assertEquals(passwordHash, userRepository.findByEmail("test@example.com").get().getPassword());
+    }
+
+    @Test
+    public void testPatchUserValidatesSuppliedFields() {
+        String sessionId = loginAndGetSessionId("test@example.com", "password123");
+        
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        headers.set("Cookie", sessionId);
+        ResponseEntity<Map> response = restTemplate.exchange(baseUrl + "/update", HttpMethod.PATCH,
+            new HttpEntity<>(Map.of("password", "123"), headers), Map.class);
+
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        Map<String, String> errors = (Map<String, String>) response.getBody().get("errors");
+        assertEquals(1, errors.size());
+        assertNotNull(errors.get("password"));
+    }
+
     @Test
     public void testUpdateUserNotAuthenticated() {
         Map<String, String> updateRequest = Map.of(
@@ -260,6 +451,33 @@ public class AuthControllerRestTest {
         assertEquals("Not authenticated", body.get("error"));
     }
 
+    @Test
+    public void testPatchUserNotAuthenticatedIsRejectedByFilter() {
+        long rejectedBefore = meterRegistry.timer("auth.principal.resolution", "source", "rejected").count();
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        ResponseEntity<Map> response = restTemplate.exchange(baseUrl + "/update", HttpMethod.PATCH,
+            new HttpEntity<>(Map.of("name", "Renamed User"), headers), Map.class);
+
+        assertEquals(HttpStatus.UNAUTHORIZED, response.getStatusCode());
+        assertEquals("Not authenticated", response.getBody().get("error"));
+        assertEquals(rejectedBefore + 1, meterRegistry.timer("auth.principal.resolution", "source", "rejected").count());
+        assertEquals("Test User", userRepository.findByEmail("test@example.com").get().getName());
+    }
+
+    @Test
+    public void testCurrentUserResolvedFromSessionIsTimed() {
+        String sessionId = loginAndGetSessionId("test@example.com", "password123");
+        long sessionBefore = meterRegistry.timer("auth.principal.resolution", "source", "session").count();
+
+        ResponseEntity<Map> response = makeGetRequestWithSession("/me", sessionId, Map.class);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertTrue((Boolean) response.getBody().get("authenticated"));
+        assertEquals(sessionBefore + 1, meterRegistry.timer("auth.principal.resolution", "source", "session").count());
+    }
+
     @Test
     public void testUpdateUserEmptyName() {
         String sessionId = loginAndGetSessionId("test@example.com", "password123");
@@ -449,6 +667,15 @@ public class AuthControllerRestTest {
         return restTemplate.postForEntity(baseUrl + endpoint, request, responseType);
     }
 
+    private ResponseEntity<Map> makePostRequestFrom(String clientIp, String endpoint, Object body, Class<Map> responseType) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        headers.set("X-Forwarded-For", clientIp);
+        HttpEntity<Object> request = new HttpEntity<>(body, headers);
+        
+        return restTemplate.postForEntity(baseUrl + endpoint, request, responseType);
+    }
+
     private ResponseEntity<Map> makePostRequestWithSession(String endpoint, Object body, String sessionId, Class<Map> responseType) {
         HttpHeaders headers = new HttpHeaders();
         headers.setContentType(MediaType.APPLICATION_JSON);
@@ -474,6 +701,12 @@ public class AuthControllerRestTest {
         return restTemplate.exchange(baseUrl + endpoint, HttpMethod.GET, request, responseType);
     }
 
+    private ResponseEntity<Map> getWithSession(String url, String sessionId) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set("Cookie", sessionId);
+        return restTemplate.exchange(url, HttpMethod.GET, new HttpEntity<>(headers), Map.class);
+    }
+
     private ResponseEntity<Map> makePutRequest(String endpoint, Object body, Class<Map> responseType) {
         HttpHeaders headers = new HttpHeaders();
         headers.setContentType(MediaType.APPLICATION_JSON);
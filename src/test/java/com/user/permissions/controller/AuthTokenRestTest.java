@@ -0,0 +1,158 @@
+package com.user.permissions.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.annotation.DirtiesContext;
+
+import com.user.permissions.appuser.AppUser;
+import com.user.permissions.appuser.repository.AppUserRepository;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+    "auth.token.enabled=true",
+    "auth.token.secret=l+vNLt3CL6QWJJQf6ysjjVzW4yxkruJpskkNkHwrgrI="
+})
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+public class AuthTokenRestTest {
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private AppUserRepository userRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    private String baseUrl;
+    private AppUser testUser;
+
+    @BeforeEach
+    public void setUp() {
+        baseUrl = "http://localhost:" + port + "/prueba-tecnica/api";
+        userRepository.deleteAll();
+
+        testUser = new AppUser();
+        testUser.setEmail("test@example.com");
+        testUser.setPassword(passwordEncoder.encode("password123"));
+        testUser.setName("Test User");
+        testUser.setRole("USER");
+        testUser = userRepository.save(testUser);
+
+        AppUser adminUser = new AppUser();
+        adminUser.setEmail("admin@example.com");
+        adminUser.setPassword(passwordEncoder.encode("admin123"));
+        adminUser.setName("Admin User");
+        adminUser.setRole("ADMIN");
+        userRepository.save(adminUser);
+    }
+
+    @Test
+    public void testLoginIssuesTokenWithoutSession() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        ResponseEntity<Map> response = restTemplate.postForEntity(baseUrl + "/auth/login",
+            new HttpEntity<>(Map.of("email", "admin@example.com", "password", "admin123"), headers), Map.class);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertNotNull(response.getBody().get("token"));
+        assertNull(response.getHeaders().get(HttpHeaders.SET_COOKIE));
+    }
+
+    @Test
+    public void testMeReadsTokenClaims() {
+        String token = loginAndGetToken("test@example.com", "password123");
+
+        ResponseEntity<Map> response = get("/auth/me", token);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertTrue((Boolean) response.getBody().get("authenticated"));
+        Map<String, Object> user = (Map<String, Object>) response.getBody().get("user");
+        assertEquals("test@example.com", user.get("email"));
+        assertEquals("Test User", user.get("name"));
+    }
+
+    @Test
+    public void testAdminTokenAuthorizesUserEndpoints() {
+        String token = loginAndGetToken("admin@example.com", "admin123");
+
+        ResponseEntity<Map> response = get("/users/get/" + testUser.getId(), token);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertTrue((Boolean) response.getBody().get("success"));
+    }
+
+    @Test
+    public void testTokenAuthorizesFromItsClaims() {
+        String token = loginAndGetToken("admin@example.com", "admin123");
+        AppUser admin = userRepository.findByEmail("admin@example.com").orElseThrow();
+        admin.setRole("USER");
+        userRepository.save(admin);
+
+        // No lookup per request: the role signed into the token holds until it expires
+        ResponseEntity<Map> response = get("/users/get/" + testUser.getId(), token);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+    }
+
+    @Test
+    public void testUserTokenCannotDeleteUsers() {
+        String token = loginAndGetToken("test@example.com", "password123");
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setBearerAuth(token);
+        ResponseEntity<Map> response = restTemplate.exchange(baseUrl + "/users/delete/" + testUser.getId(),
+            HttpMethod.DELETE, new HttpEntity<>(headers), Map.class);
+
+        assertEquals(HttpStatus.FORBIDDEN, response.getStatusCode());
+    }
+
+    @Test
+    public void testTamperedTokenIsRejected() {
+        String token = loginAndGetToken("test@example.com", "password123");
+        String tampered = (token.charAt(0) == 'M' ? "N" : "M") + token.substring(1);
+
+        ResponseEntity<Map> me = get("/auth/me", tampered);
+        assertFalse((Boolean) me.getBody().get("authenticated"));
+
+        ResponseEntity<Map> list = get("/users/list", tampered);
+        assertEquals(HttpStatus.UNAUTHORIZED, list.getStatusCode());
+    }
+
+    private String loginAndGetToken(String email, String password) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        ResponseEntity<Map> response = restTemplate.postForEntity(baseUrl + "/auth/login",
+            new HttpEntity<>(Map.of("email", email, "password", password), headers), Map.class);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        return (String) response.getBody().get("token");
+    }
+
+    private ResponseEntity<Map> get(String endpoint, String token) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setBearerAuth(token);
+        return restTemplate.exchange(baseUrl + endpoint, HttpMethod.GET, new HttpEntity<>(headers), Map.class);
+    }
+}
@@ -4,11 +4,22 @@ package com.user.permissions.controller;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
+import java.time.Duration;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -23,10 +34,15 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import com.user.permissions.GenericTesting;
+import com.user.permissions.config.client.ExternalApiClient;
+import com.user.permissions.escalationpolicies.cache.EscalationPolicyPageCache;
 import com.user.permissions.escalationpolicies.model.EscalationPoliciesResponse;
 import com.user.permissions.escalationpolicies.model.EscalationPolicy;
+
+import io.micrometer.core.instrument.MeterRegistry;
 	
 @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
 @DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
@@ -39,6 +55,12 @@ public class EscalationPoliciesControllerTest extends GenericTesting{
     @Autowired
     private TestRestTemplate restTemplate;
 
+    @Autowired
+    private EscalationPolicyPageCache pageCache;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
     private String baseUrl;
 
     @BeforeEach
@@ -276,7 +298,97 @@ public class EscalationPoliciesControllerTest extends GenericTesting{
         assertEquals(1, policiesResponse.size());
     }
 
+    // ============ CACHE INVALIDATION TESTS ============
+    @Test
+    public void testInvalidateCacheNotAuthenticated() {
+        ResponseEntity<Map> response = makeDeleteRequestWithSession("/escalation-policies/cache", null, Map.class);
+
+        assertEquals(HttpStatus.UNAUTHORIZED, response.getStatusCode());
+    }
+
+    @Test
+    public void testInvalidateCacheAsUserForbidden() {
+        String sessionId = loginAndGetSessionId("test@example.com", "password123");
+
+        ResponseEntity<Map> response = makeDeleteRequestWithSession("/escalation-policies/cache", sessionId, Map.class);
+
+        assertEquals(HttpStatus.FORBIDDEN, response.getStatusCode());
+    }
+
+    @Test
+    public void testInvalidateCacheAsAdmin() {
+        String sessionId = loginAndGetSessionId("admin@example.com", "admin123");
+
+        ResponseEntity<Map> response = makeDeleteRequestWithSession("/escalation-policies/cache", sessionId, Map.class);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertNotNull(response.getBody());
+        assertEquals(true, response.getBody().get("success"));
+        assertEquals(0, response.getBody().get("invalidatedEntries"));
+        // The sync is off in tests, EscalationPolicySyncTest covers the resync against a stub
+        assertEquals(false, response.getBody().get("resyncRequested"));
+    }
+
+    // ============ PAGE CACHE TESTS ============
+    @Test
+    public void testStalePageIsServedWhileOneRefreshRuns() throws InterruptedException {
+        ExternalApiClient client = stubPageCacheClient();
+        EscalationPoliciesResponse page = createTestResponse(
+            List.of(createTestEscalationPolicy("SWR_TEST", "Stale Policy")), 10, 0, false);
+        AtomicInteger upstreamCalls = new AtomicInteger();
+        CountDownLatch refreshStarted = new CountDownLatch(1);
+        CountDownLatch releaseRefresh = new CountDownLatch(1);
+        when(client.getEscalationPoliciesWithPagination(any(), any(), any(), any())).thenAnswer(invocation -> {
+            if (upstreamCalls.incrementAndGet() > 1) {
+                refreshStarted.countDown();
+                releaseRefresh.await(5, TimeUnit.SECONDS);
+            }
+            return Optional.of(page);
+        });
+        // Every page is stale as soon as it is loaded, but stays servable for the stale window
+        ReflectionTestUtils.setField(pageCache, "ttl", Duration.ZERO);
+
+        assertSame(page, pageCache.get(10, 0, false, null).orElseThrow());
+        assertSame(page, pageCache.get(10, 0, false, null).orElseThrow());
+        assertTrue(refreshStarted.await(5, TimeUnit.SECONDS));
+
+        // The refresh is still running: the stale page is served again without a second refresh
+        assertSame(page, pageCache.get(10, 0, false, null).orElseThrow());
+        releaseRefresh.countDown();
+
+        assertEquals(2, upstreamCalls.get());
+        assertEquals(2.0, meterRegistry.counter("pagerduty.policy-cache.requests", "result", "stale").count());
+    }
+
+    @Test
+    public void testPageIsReloadedAfterTtlAndStaleWindow() {
+        ExternalApiClient client = stubPageCacheClient();
+        EscalationPoliciesResponse page = createTestResponse(
+            List.of(createTestEscalationPolicy("TTL_TEST", "Expiring Policy")), 10, 0, false);
+        when(client.getEscalationPoliciesWithPagination(any(), any(), any(), any())).thenReturn(Optional.of(page));
+
+        // Within the TTL the cached page answers
+        pageCache.get(10, 0, false, null);
+        pageCache.get(10, 0, false, null);
+        verify(client, times(1)).getEscalationPoliciesWithPagination(any(), any(), any(), any());
+
+        // Past TTL and stale window the page is dropped and loaded again in the request
+        ReflectionTestUtils.setField(pageCache, "ttl", Duration.ZERO);
+        ReflectionTestUtils.setField(pageCache, "staleWindow", Duration.ZERO);
+        pageCache.get(10, 0, false, null);
+        verify(client, times(2)).getEscalationPoliciesWithPagination(any(), any(), any(), any());
+        assertEquals(1.0, meterRegistry.counter("pagerduty.policy-cache.evictions", "cause", "expired").count());
+        assertEquals(0.0, meterRegistry.counter("pagerduty.policy-cache.requests", "result", "stale").count());
+    }
+
     // ============ HELPER METHODS ============
+    // The cache talks to a mock instead of PagerDuty, the context is discarded after each test
+    private ExternalApiClient stubPageCacheClient() {
+        ExternalApiClient client = mock(ExternalApiClient.class);
+        ReflectionTestUtils.setField(pageCache, "externalApiClient", client);
+        return client;
+    }
+
     private String loginAndGetSessionId(String email, String password) {
         Map<String, String> loginRequest = Map.of("email", email, "password", password);
         ResponseEntity<Map> response = makePostRequest("/auth/login", loginRequest, Map.class);
@@ -316,4 +428,14 @@ public class EscalationPoliciesControllerTest extends GenericTesting{
         
         return restTemplate.exchange(baseUrl + endpoint, HttpMethod.GET, request, responseType);
     }
-}
\ No newline at end of file
+
+    private ResponseEntity<Map> makeDeleteRequestWithSession(String endpoint, String sessionId, Class<Map> responseType) {
+        HttpHeaders headers = new HttpHeaders();
+        if (sessionId != null) {
+            headers.set("Cookie", sessionId);
+        }
+        HttpEntity<?> request = new HttpEntity<>(headers);
+        
+        return restTemplate.exchange(baseUrl + endpoint, HttpMethod.DELETE, request, responseType);
+    }
+}
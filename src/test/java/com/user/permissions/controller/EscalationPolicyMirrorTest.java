@@ -0,0 +1,124 @@
+package com.user.permissions.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.annotation.DirtiesContext;
+
+import com.user.permissions.escalationpolicies.model.EscalationPolicy;
+import com.user.permissions.escalationpolicies.repository.EscalationPolicieRepository;
+import com.user.permissions.escalationpolicies.sync.EscalationPolicyMirrorWriter;
+
+// The scheduled sync is off, the mirror is seeded directly so no PagerDuty account is needed
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = "pagerduty.policy-sync.enabled=false")
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+public class EscalationPolicyMirrorTest {
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private EscalationPolicieRepository escalationPolicieRepository;
+
+    @Autowired
+    private EscalationPolicyMirrorWriter mirrorWriter;
+
+    private String baseUrl;
+
+    @BeforeEach
+    public void setUp() {
+        baseUrl = "http://localhost:" + port + "/prueba-tecnica/api";
+        LocalDateTime syncedAt = LocalDateTime.now();
+        escalationPolicieRepository.saveAll(List.of(
+            policy("P1", "Ops Primary", syncedAt),
+            policy("P2", "Ops Secondary", syncedAt),
+            policy("P3", "Database", syncedAt),
+            policy("P4", "ops overflow", syncedAt)));
+    }
+
+    private EscalationPolicy policy(String id, String name, LocalDateTime syncedAt) {
+        EscalationPolicy policy = new EscalationPolicy(id, name, name + " Summary");
+        policy.setType("escalation_policy");
+        policy.setSyncedAt(syncedAt);
+        return policy;
+    }
+
+    @Test
+    public void testListServedFromMirror() {
+        ResponseEntity<Map> response = restTemplate.getForEntity(
+            baseUrl + "/escalation-policies/list?page=1&size=3", Map.class);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertNotNull(response.getBody().get("syncedAt"));
+        List<Map<String, Object>> policies = (List<Map<String, Object>>) response.getBody().get("escalationPolicies");
+        assertEquals(3, policies.size());
+        assertEquals("Database", policies.get(0).get("name"));
+
+        Map<String, Object> pagination = (Map<String, Object>) response.getBody().get("pagination");
+        assertEquals(4, pagination.get("totalRecords"));
+        assertEquals(2, pagination.get("totalPages"));
+        assertEquals(true, pagination.get("hasNext"));
+    }
+
+    @Test
+    public void testQueryFiltersMirrorCaseInsensitively() {
+        ResponseEntity<Map> response = restTemplate.getForEntity(
+            baseUrl + "/escalation-policies/list?page=2&size=2&query=OPS", Map.class);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        List<Map<String, Object>> policies = (List<Map<String, Object>>) response.getBody().get("escalationPolicies");
+        assertEquals(1, policies.size());
+        assertEquals("ops overflow", policies.get(0).get("name"));
+
+        Map<String, Object> pagination = (Map<String, Object>) response.getBody().get("pagination");
+        assertEquals(3, pagination.get("totalRecords"));
+        assertEquals(false, pagination.get("hasNext"));
+        assertTrue((Boolean) pagination.get("hasPrevious"));
+    }
+
+    @Test
+    public void testCompleteRunReplacesMirrorById() {
+        LocalDateTime runStart = LocalDateTime.now();
+
+        EscalationPolicyMirrorWriter.Result result = mirrorWriter.write(List.of(
+            policy("P1", "Ops Primary Renamed", runStart),
+            policy("P2", "Ops Secondary", runStart),
+            policy("P5", "Network", runStart)), runStart, true);
+
+        assertEquals(1, result.inserted());
+        assertEquals(2, result.updated());
+        assertEquals(2, result.removed());
+        assertEquals(3, escalationPolicieRepository.count());
+        assertEquals("Ops Primary Renamed", escalationPolicieRepository.findById("P1").get().getName());
+        assertFalse(escalationPolicieRepository.existsById("P3"));
+    }
+
+    @Test
+    public void testIncompleteRunKeepsUnseenPolicies() {
+        LocalDateTime runStart = LocalDateTime.now();
+
+        // Rows written by a run that started later on another node are not touched either
+        EscalationPolicyMirrorWriter.Result result = mirrorWriter.write(List.of(
+            policy("P5", "Network", runStart)), runStart.minusMinutes(1), false);
+
+        assertEquals(0, result.removed());
+        assertEquals(5, escalationPolicieRepository.count());
+    }
+}
@@ -0,0 +1,140 @@
+package com.user.permissions.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import com.user.permissions.GenericTesting;
+import com.user.permissions.escalationpolicies.repository.EscalationPolicieRepository;
+
+// The only test with the scheduled sync on, against a local PagerDuty stub instead of the real API
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+    "pagerduty.policy-sync.enabled=true",
+    "pagerduty.policy-sync.initial-delay-ms=0",
+    "pagerduty.policy-sync.interval-ms=3600000"
+})
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+public class EscalationPolicySyncTest extends GenericTesting {
+
+    private static final String PAGE = "{\"escalation_policies\":["
+        + "{\"id\":\"P1\",\"type\":\"escalation_policy\",\"name\":\"Ops\",\"summary\":\"Ops\",\"num_loops\":0,\"escalation_rules\":[]},"
+        + "{\"id\":\"P2\",\"type\":\"escalation_policy\",\"name\":\"Database\",\"summary\":\"Database\",\"num_loops\":0,\"escalation_rules\":[]}],"
+        + "\"limit\":100,\"offset\":0,\"more\":false}";
+
+    private static HttpServer stub;
+    private static final AtomicInteger calls = new AtomicInteger();
+
+    @Autowired
+    private EscalationPolicieRepository escalationPolicieRepository;
+
+    @BeforeAll
+    public static void startStub() throws IOException {
+        stub = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        stub.setExecutor(Executors.newCachedThreadPool());
+        stub.createContext("/escalation_policies", EscalationPolicySyncTest::handle);
+        stub.start();
+    }
+
+    @AfterAll
+    public static void stopStub() {
+        stub.stop(0);
+    }
+
+    @DynamicPropertySource
+    static void pagerDutyProperties(DynamicPropertyRegistry registry) {
+        registry.add("pagerduty.api.baseUrl", () -> "http://localhost:" + stub.getAddress().getPort());
+        registry.add("pagerduty.api.token", () -> "stub-token");
+    }
+
+    private static void handle(HttpExchange exchange) throws IOException {
+        calls.incrementAndGet();
+        byte[] body = PAGE.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    @BeforeEach
+    public void setUp() {
+        super.setUp();
+        baseUrl = "http://localhost:" + port + "/prueba-tecnica/api";
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + 5_000_000_000L;
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, "condition not met within 5s");
+            Thread.sleep(20);
+        }
+    }
+
+    @Test
+    public void testStartupSyncFillsTheMirror() throws InterruptedException {
+        await(() -> escalationPolicieRepository.findLastSyncedAt() != null);
+
+        ResponseEntity<Map> response = restTemplate.getForEntity(baseUrl + "/escalation-policies/list?page=1&size=10", Map.class);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertNotNull(response.getBody().get("syncedAt"));
+        assertEquals(2, ((List<?>) response.getBody().get("escalationPolicies")).size());
+    }
+
+    @Test
+    public void testCacheInvalidationRequestsAResync() throws InterruptedException {
+        await(() -> escalationPolicieRepository.findLastSyncedAt() != null);
+        int callsBefore = calls.get();
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.set("Cookie", loginAndGetSessionId("admin@example.com", "admin123"));
+        ResponseEntity<Map> response = restTemplate.exchange(baseUrl + "/escalation-policies/cache", HttpMethod.DELETE,
+            new HttpEntity<>(headers), Map.class);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(true, response.getBody().get("resyncRequested"));
+        await(() -> calls.get() > callsBefore);
+    }
+
+    private String loginAndGetSessionId(String email, String password) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        ResponseEntity<Map> response = restTemplate.postForEntity(baseUrl + "/auth/login",
+            new HttpEntity<>(Map.of("email", email, "password", password), headers), Map.class);
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        for (String cookie : response.getHeaders().get(HttpHeaders.SET_COOKIE)) {
+            if (cookie.startsWith("JSESSIONID=")) {
+                return cookie.split(";")[0];
+            }
+        }
+        throw new AssertionError("No session cookie");
+    }
+}
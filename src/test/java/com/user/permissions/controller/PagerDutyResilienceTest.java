@@ -0,0 +1,453 @@
+package com.user.permissions.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPOutputStream;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.RequestCallback;
+import org.springframework.web.client.ResponseExtractor;
+import org.springframework.web.client.RestTemplate;
+
+import com.user.permissions.config.client.ExternalApiClient;
+import com.user.permissions.config.client.PagerDutyCallGuard;
+import com.user.permissions.config.client.PagerDutyUnavailableException;
+import com.user.permissions.escalationpolicies.model.EscalationPoliciesResponse;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+// PagerDuty is replaced by a local stub that injects errors and latency.
+// Mirror and page cache are out of the way so every list request reaches the client.
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+    "pagerduty.policy-sync.enabled=false",
+    "pagerduty.policy-cache.ttl=0s",
+    "pagerduty.policy-cache.stale-window=0s",
+    "pagerduty.policy-prefetch.depth=0",
+    "pagerduty.http.read-timeout=300ms",
+    "pagerduty.resilience.retry.max-attempts=3",
+    "pagerduty.resilience.retry.initial-backoff=10ms",
+    "pagerduty.resilience.circuit.failure-threshold=3",
+    "pagerduty.resilience.circuit.open-duration=500ms"
+})
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+public class PagerDutyResilienceTest {
+
+    private static final String PAGE = "{\"escalation_policies\":[{\"id\":\"P1\",\"type\":\"escalation_policy\","
+        + "\"name\":\"Ops\",\"summary\":\"Ops\",\"num_loops\":0,\"escalation_rules\":[]}],"
+        + "\"limit\":10,\"offset\":0,\"more\":false,\"total\":1}";
+
+    private static HttpServer stub;
+    private static final AtomicInteger calls = new AtomicInteger();
+    private static volatile int failuresBeforeSuccess;
+    private static volatile int failureStatus;
+    private static volatile long delayMs;
+    private static volatile boolean gzipResponses;
+    private static volatile String lastAcceptEncoding;
+    private static volatile String retryAfterHeader;
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private ExternalApiClient externalApiClient;
+
+    @Autowired
+    private PagerDutyCallGuard callGuard;
+
+    private String baseUrl;
+
+    @BeforeAll
+    public static void startStub() throws IOException {
+        stub = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        stub.setExecutor(Executors.newCachedThreadPool());
+        stub.createContext("/escalation_policies", PagerDutyResilienceTest::handle);
+        stub.start();
+    }
+
+    @AfterAll
+    public static void stopStub() {
+        stub.stop(0);
+    }
+
+    @DynamicPropertySource
+    static void pagerDutyProperties(DynamicPropertyRegistry registry) {
+        registry.add("pagerduty.api.baseUrl", () -> "http://localhost:" + stub.getAddress().getPort());
+        registry.add("pagerduty.api.token", () -> "stub-token");
+    }
+
+    private static void handle(HttpExchange exchange) throws IOException {
+        int call = calls.incrementAndGet();
+        if (delayMs > 0) {
+            try {
+                Thread.sleep(delayMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        boolean fail = call <= failuresBeforeSuccess;
+        byte[] body = (fail ? "{\"error\":{\"message\":\"Injected failure\"}}" : PAGE).getBytes(StandardCharsets.UTF_8);
+        lastAcceptEncoding = exchange.getRequestHeaders().getFirst("Accept-Encoding");
+        if (gzipResponses) {
+            ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+            try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+                gzip.write(body);
+            }
+            body = compressed.toByteArray();
+            exchange.getResponseHeaders().set("Content-Encoding", "gzip");
+        }
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        if (fail && retryAfterHeader != null) {
+            exchange.getResponseHeaders().set("Retry-After", retryAfterHeader);
+        }
+        exchange.sendResponseHeaders(fail ? failureStatus : 200, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    @BeforeEach
+    public void setUp() {
+        baseUrl = "http://localhost:" + port + "/prueba-tecnica/api";
+        calls.set(0);
+        failuresBeforeSuccess = 0;
+        failureStatus = 500;
+        delayMs = 0;
+        gzipResponses = false;
+        lastAcceptEncoding = null;
+        retryAfterHeader = null;
+    }
+
+    private ResponseEntity<Map> list() {
+        return restTemplate.getForEntity(baseUrl + "/escalation-policies/list?page=1&size=10", Map.class);
+    }
+
+    @Test
+    public void testConsecutiveCallsReuseThePooledConnection() {
+        assertEquals(HttpStatus.OK, list().getStatusCode());
+        assertEquals(HttpStatus.OK, list().getStatusCode());
+
+        // The first call opens the connection, the second runs on it again
+        assertEquals(1.0, meterRegistry.counter("pagerduty.http.requests", "connection.reused", "false").count());
+        assertEquals(1.0, meterRegistry.counter("pagerduty.http.requests", "connection.reused", "true").count());
+        assertEquals(2, calls.get());
+    }
+
+    @Test
+    public void testGzipEncodedPageIsRead() {
+        gzipResponses = true;
+
+        ResponseEntity<Map> response = list();
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertTrue(lastAcceptEncoding.contains("gzip"));
+        List<Map<String, Object>> policies = (List<Map<String, Object>>) response.getBody().get("escalationPolicies");
+        assertEquals(1, policies.size());
+        assertEquals("Ops", policies.get(0).get("name"));
+    }
+
+    @Test
+    public void testTransientErrorsAreRetried() {
+        failuresBeforeSuccess = 2;
+        failureStatus = 502;
+
+        ResponseEntity<Map> response = list();
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(1, ((List<?>) response.getBody().get("escalationPolicies")).size());
+        assertEquals(3, calls.get());
+    }
+
+    @Test
+    public void testOutageReturnsUnavailableAndOpensCircuit() {
+        failuresBeforeSuccess = Integer.MAX_VALUE;
+
+        ResponseEntity<Map> first = list();
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, first.getStatusCode());
+        assertEquals("upstream_error", first.getBody().get("reason"));
+        assertEquals(3, calls.get());
+
+        // Three failed attempts opened the circuit: the next call fails fast without reaching the stub
+        ResponseEntity<Map> second = list();
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, second.getStatusCode());
+        assertEquals("circuit_open", second.getBody().get("reason"));
+        assertNotNull(second.getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+        assertEquals(3, calls.get());
+    }
+
+    @Test
+    public void testHalfOpenProbeClosesCircuit() throws InterruptedException {
+        failuresBeforeSuccess = 3;
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, list().getStatusCode());
+        assertEquals("circuit_open", list().getBody().get("reason"));
+
+        Thread.sleep(600);
+
+        // The stub has recovered, the probe succeeds and the circuit lets traffic through again
+        assertEquals(HttpStatus.OK, list().getStatusCode());
+        assertEquals(HttpStatus.OK, list().getStatusCode());
+        assertEquals(5, calls.get());
+    }
+
+    @Test
+    public void testProbeEndingInErrorReopensCircuit() throws InterruptedException {
+        failuresBeforeSuccess = 3;
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, list().getStatusCode());
+        Thread.sleep(600);
+
+        // The half-open probe dies with an Error, which none of the guard's handlers see
+        RestTemplate pooled = (RestTemplate) ReflectionTestUtils.getField(externalApiClient, "restTemplate");
+        RestTemplate failing = mock(RestTemplate.class);
+        doAnswer(invocation -> {
+            throw new AssertionError("Injected error");
+        }).when(failing).execute(any(URI.class), any(HttpMethod.class), any(RequestCallback.class), any(ResponseExtractor.class));
+        ReflectionTestUtils.setField(externalApiClient, "restTemplate", failing);
+        assertThrows(AssertionError.class, () -> externalApiClient.getEscalationPoliciesWithPagination(10, 0, true, ""));
+        ReflectionTestUtils.setField(externalApiClient, "restTemplate", pooled);
+
+        // Back to open rather than stuck half-open: the next caller probes and closes the circuit
+        assertEquals(HttpStatus.OK, list().getStatusCode());
+        assertEquals(4, calls.get());
+    }
+
+    @Test
+    public void testRejectedProbeDoesNotCloseCircuit() throws InterruptedException {
+        failuresBeforeSuccess = Integer.MAX_VALUE;
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, list().getStatusCode());
+        Thread.sleep(600);
+
+        failureStatus = 401;
+        assertEquals(HttpStatus.BAD_GATEWAY, list().getStatusCode());
+        assertEquals(4, calls.get());
+
+        // Still not closed: the next probe fails once and reopens the circuit instead of running three attempts
+        failureStatus = 500;
+        ResponseEntity<Map> response = list();
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, response.getStatusCode());
+        assertEquals("circuit_open", response.getBody().get("reason"));
+        assertEquals(5, calls.get());
+    }
+
+    @Test
+    public void testClientErrorsAreNotRetried() {
+        failuresBeforeSuccess = 3;
+        failureStatus = 401;
+
+        ResponseEntity<Map> response = list();
+
+        // A rejected request is not an empty result and not an outage: 502 without retries
+        assertEquals(HttpStatus.BAD_GATEWAY, response.getStatusCode());
+        assertEquals("upstream_rejected", response.getBody().get("reason"));
+        assertEquals(1, calls.get());
+
+        // Reaching the failure threshold in rejections does not open the circuit
+        assertEquals(HttpStatus.BAD_GATEWAY, list().getStatusCode());
+        assertEquals(HttpStatus.BAD_GATEWAY, list().getStatusCode());
+        assertEquals(HttpStatus.OK, list().getStatusCode());
+        assertEquals(4, calls.get());
+    }
+
+    @Test
+    public void testRateLimitedCallWaitsForRetryAfter() {
+        failuresBeforeSuccess = 1;
+        failureStatus = 429;
+        retryAfterHeader = "1";
+
+        long start = System.nanoTime();
+        ResponseEntity<Map> response = list();
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(2, calls.get());
+        // The one second PagerDuty asked for, not the 10ms backoff
+        assertTrue(elapsedMs >= 1000, "took " + elapsedMs + "ms");
+    }
+
+    @Test
+    public void testLongRetryAfterFailsFastWithUpstreamDelay() {
+        failuresBeforeSuccess = Integer.MAX_VALUE;
+        failureStatus = 429;
+        retryAfterHeader = "120";
+
+        ResponseEntity<Map> response = list();
+
+        // Longer than the maximum backoff: no request thread waits for it, the client is told instead
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, response.getStatusCode());
+        assertEquals("rate_limited", response.getBody().get("reason"));
+        assertEquals("120", response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    public void testFullBulkheadReturnsUnavailable() {
+        Semaphore bulkhead = (Semaphore) ReflectionTestUtils.getField(callGuard, "bulkhead");
+        int permits = bulkhead.drainPermits();
+        try {
+            ResponseEntity<Map> response = list();
+
+            assertEquals(HttpStatus.SERVICE_UNAVAILABLE, response.getStatusCode());
+            assertEquals("bulkhead_full", response.getBody().get("reason"));
+            assertNotNull(response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+            assertEquals(0, calls.get());
+            assertEquals(1.0, meterRegistry.counter("pagerduty.resilience.rejected", "reason", "bulkhead_full").count());
+        } finally {
+            bulkhead.release(permits);
+        }
+    }
+
+    @Test
+    public void testConcurrentIdenticalCallsShareOneUpstreamRequest() throws Exception {
+        delayMs = 200;
+        int callers = 8;
+        ExecutorService pool = Executors.newFixedThreadPool(callers);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Optional<EscalationPoliciesResponse>>> results = new ArrayList<>();
+        for (int i = 0; i < callers; i++) {
+            results.add(pool.submit(() -> {
+                start.await();
+                return externalApiClient.getEscalationPoliciesWithPagination(10, 0, true, "");
+            }));
+        }
+        start.countDown();
+
+        try {
+            for (Future<Optional<EscalationPoliciesResponse>> result : results) {
+                assertEquals(1, result.get(5, TimeUnit.SECONDS).orElseThrow().getEscalationPolicies().size());
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        assertEquals(1, calls.get());
+        assertEquals(callers - 1.0, meterRegistry.counter("pagerduty.requests.coalesced").count());
+    }
+
+    @Test
+    public void testErrorInSharedCallReachesWaitingCallers() throws Exception {
+        // The leader's transport blocks, then fails with an Error instead of an exception
+        RestTemplate failing = mock(RestTemplate.class);
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            entered.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            throw new AssertionError("Injected error");
+        }).when(failing).execute(any(URI.class), any(HttpMethod.class), any(RequestCallback.class), any(ResponseExtractor.class));
+        ReflectionTestUtils.setField(externalApiClient, "restTemplate", failing);
+
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        try {
+            Future<?> leader = pool.submit(() -> externalApiClient.getEscalationPoliciesWithPagination(10, 0, true, ""));
+            assertTrue(entered.await(5, TimeUnit.SECONDS));
+            Future<?> joiner = pool.submit(() -> externalApiClient.getEscalationPoliciesWithPagination(10, 0, true, ""));
+            while (meterRegistry.counter("pagerduty.requests.coalesced").count() < 1) {
+                Thread.sleep(5);
+            }
+            release.countDown();
+
+            ExecutionException leaderFailure = assertThrows(ExecutionException.class, () -> leader.get(5, TimeUnit.SECONDS));
+            assertInstanceOf(AssertionError.class, leaderFailure.getCause());
+            ExecutionException joinerFailure = assertThrows(ExecutionException.class, () -> joiner.get(5, TimeUnit.SECONDS));
+            assertInstanceOf(AssertionError.class, joinerFailure.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testFailedPrefetchesDoNotOpenCircuit() {
+        failuresBeforeSuccess = 5;
+
+        for (int i = 0; i < 5; i++) {
+            PagerDutyUnavailableException e = assertThrows(PagerDutyUnavailableException.class,
+                () -> externalApiClient.prefetchEscalationPolicies(10, 10, true, ""));
+            assertEquals(PagerDutyUnavailableException.Reason.UPSTREAM_ERROR, e.getReason());
+        }
+        // One attempt each, no retries
+        assertEquals(5, calls.get());
+
+        // Five failures are above the threshold of three, yet the circuit is still closed for real requests
+        assertEquals(HttpStatus.OK, list().getStatusCode());
+        assertEquals(6, calls.get());
+    }
+
+    @Test
+    public void testPrefetchSkippedWithoutWaitingWhenBulkheadIsFull() {
+        Semaphore bulkhead = (Semaphore) ReflectionTestUtils.getField(callGuard, "bulkhead");
+        int permits = bulkhead.drainPermits();
+        try {
+            long start = System.nanoTime();
+            PagerDutyUnavailableException e = assertThrows(PagerDutyUnavailableException.class,
+                () -> externalApiClient.prefetchEscalationPolicies(10, 10, true, ""));
+            long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+
+            assertEquals(PagerDutyUnavailableException.Reason.BULKHEAD_FULL, e.getReason());
+            // tryAcquire only: the 100ms bulkhead wait of regular calls does not apply
+            assertTrue(elapsedMs < 100, "took " + elapsedMs + "ms");
+            assertEquals(0, calls.get());
+        } finally {
+            bulkhead.release(permits);
+        }
+    }
+
+    @Test
+    public void testSlowUpstreamTimesOut() {
+        delayMs = 1000;
+
+        long start = System.nanoTime();
+        ResponseEntity<Map> response = list();
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, response.getStatusCode());
+        assertEquals("upstream_error", response.getBody().get("reason"));
+        // Three attempts bounded by the 300ms read timeout, not by the stub's latency
+        assertEquals(true, elapsedMs < 3 * 1000, "took " + elapsedMs + "ms");
+    }
+}
@@ -0,0 +1,126 @@
+package com.user.permissions.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import com.user.permissions.DemoApplication;
+import com.user.permissions.appuser.AppUser;
+import com.user.permissions.appuser.repository.AppUserRepository;
+
+/**
+ * Two application instances sharing one H2 file database, as two nodes behind a load balancer would.
+ */
+public class SessionClusterTest {
+
+    private static ConfigurableApplicationContext nodeA;
+    private static ConfigurableApplicationContext nodeB;
+
+    private final TestRestTemplate restTemplate = new TestRestTemplate();
+
+    @BeforeAll
+    public static void startNodes() {
+        String url = "jdbc:h2:file:./build/h2/session-cluster-" + UUID.randomUUID();
+        nodeA = startNode(url);
+        nodeB = startNode(url);
+    }
+
+    @AfterAll
+    public static void stopNodes() {
+        nodeB.close();
+        nodeA.close();
+    }
+
+    @Test
+    public void testSessionCreatedOnOneNodeIsSeenByTheOther() {
+        String email = createUser();
+        String sessionId = login(nodeA, email);
+
+        ResponseEntity<Map> response = get(nodeB, "/api/auth/me", sessionId);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertTrue((Boolean) response.getBody().get("authenticated"));
+        assertEquals(email, ((Map<String, Object>) response.getBody().get("user")).get("email"));
+    }
+
+    @Test
+    public void testLoginOnAnotherNodeExpiresTheFirstSession() {
+        String email = createUser();
+        String firstSession = login(nodeA, email);
+        String secondSession = login(nodeB, email);
+
+        ResponseEntity<Map> expired = get(nodeA, "/api/auth/me", firstSession);
+        assertEquals(HttpStatus.UNAUTHORIZED, expired.getStatusCode());
+
+        ResponseEntity<Map> current = get(nodeA, "/api/auth/me", secondSession);
+        assertTrue((Boolean) current.getBody().get("authenticated"));
+    }
+
+    private static ConfigurableApplicationContext startNode(String url) {
+        return new SpringApplicationBuilder(DemoApplication.class)
+            .properties(
+                "server.port=0",
+                "spring.datasource.url=" + url,
+                "spring.jpa.hibernate.ddl-auto=update",
+                "spring.jpa.show-sql=false",
+                "auth.session-store.cache-ttl=0s",
+                "pagerduty.policy-sync.enabled=false")
+            .run();
+    }
+
+    private String createUser() {
+        String email = "cluster-" + UUID.randomUUID() + "@example.com";
+        AppUser user = new AppUser();
+        user.setEmail(email);
+        user.setPassword(nodeA.getBean(PasswordEncoder.class).encode("password123"));
+        user.setName("Cluster User");
+        user.setRole("USER");
+        nodeA.getBean(AppUserRepository.class).save(user);
+        return email;
+    }
+
+    private String login(ConfigurableApplicationContext node, String email) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        ResponseEntity<Map> response = restTemplate.postForEntity(baseUrl(node) + "/api/auth/login",
+            new HttpEntity<>(Map.of("email", email, "password", "password123"), headers), Map.class);
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+
+        List<String> cookies = response.getHeaders().get(HttpHeaders.SET_COOKIE);
+        assertNotNull(cookies);
+        for (String cookie : cookies) {
+            if (cookie.startsWith("JSESSIONID=")) {
+                return cookie.split(";")[0];
+            }
+        }
+        throw new AssertionError("No session cookie in " + cookies);
+    }
+
+    private ResponseEntity<Map> get(ConfigurableApplicationContext node, String endpoint, String sessionId) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.COOKIE, sessionId);
+        return restTemplate.exchange(baseUrl(node) + endpoint, HttpMethod.GET, new HttpEntity<>(headers), Map.class);
+    }
+
+    private static String baseUrl(ConfigurableApplicationContext node) {
+        return "http://localhost:" + node.getEnvironment().getProperty("local.server.port") + "/prueba-tecnica";
+    }
+}